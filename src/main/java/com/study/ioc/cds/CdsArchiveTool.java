@@ -0,0 +1,155 @@
+package com.study.ioc.cds;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Creates an AppCDS archive for a context, so the next launches map bean classes already loaded and linked.
+ * <p>
+ * The context is started once in a child JVM that writes every class it loads into a class list:
+ * bean classes, post-processors, interfaces of interceptor proxies and the classes of the container itself.
+ * The archive is then dumped from that list, by this tool with {@code --dump} or later with the logged command.
+ * Start the application with {@code -XX:SharedArchiveFile=<archive>} and the same class path to use it.
+ * <p>
+ * Usage: {@code CdsArchiveTool [--class-list=<file>] [--archive=<file>] [--dump] [-D<name>=<value>] [-J<option>]
+ * <context location>...}
+ * <p>
+ * The child JVM gets the {@code -D} system properties this tool was started with, e.g. {@code ioc.profiles.active}
+ * and the properties used by conditions and placeholders, so it loads the same beans as the application.
+ * More properties can be passed as {@code -D} arguments and other JVM options as {@code -J<option>}.
+ * <p>
+ * CDS archives classes from jar files only, so the class path must not contain non-empty directories.
+ * Proxy classes are generated at runtime and are not archived.
+ */
+@Slf4j
+public class CdsArchiveTool {
+    private static final String CLASS_LIST_OPTION = "--class-list=";
+    private static final String ARCHIVE_OPTION = "--archive=";
+    private static final String DUMP_OPTION = "--dump";
+    private static final String PROPERTY_OPTION = "-D";
+    private static final String JVM_OPTION = "-J";
+    private static final String USAGE = "Usage: CdsArchiveTool [--class-list=<file>] [--archive=<file>] [--dump] "
+            + "[-D<name>=<value>] [-J<option>] <context location>...";
+    private static final Pattern GENERATED_PROXY = Pattern.compile("^(jdk/proxy\\d+|com/sun/proxy)/\\$Proxy\\d+.*");
+
+    private final String javaExecutable;
+    private final String classPath;
+    private final List<String> jvmOptions;
+
+    public CdsArchiveTool(String classPath) {
+        this(classPath, List.of());
+    }
+
+    /**
+     * @param jvmOptions options of the child JVM that records the class list, e.g. {@code -Dname=value}
+     */
+    public CdsArchiveTool(String classPath, List<String> jvmOptions) {
+        this.javaExecutable = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        this.classPath = classPath;
+        this.jvmOptions = List.copyOf(jvmOptions);
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Arguments arguments = Arguments.parse(args, ManagementFactory.getRuntimeMXBean().getInputArguments());
+
+        CdsArchiveTool tool = new CdsArchiveTool(System.getProperty("java.class.path"), arguments.jvmOptions());
+        tool.recordClassList(arguments.classList(), arguments.locations());
+        log.info("Recorded class list {}.", arguments.classList());
+        if (arguments.dump()) {
+            tool.createArchive(arguments.classList(), arguments.archive());
+            log.info("Created archive {}.", arguments.archive());
+        } else {
+            log.info("Create the archive with: {}",
+                    String.join(" ", tool.getDumpCommand(arguments.classList(), arguments.archive())));
+        }
+    }
+
+    /**
+     * Starts the context from {@code locations} in a child JVM and writes the classes it loaded to {@code classList}.
+     */
+    public void recordClassList(Path classList, List<String> locations) throws IOException, InterruptedException {
+        run(getRecordCommand(classList, locations));
+
+        List<String> classes = Files.readAllLines(classList);
+        classes.removeIf(CdsArchiveTool::isGeneratedProxy);
+        Files.write(classList, classes);
+    }
+
+    List<String> getRecordCommand(Path classList, List<String> locations) {
+        List<String> command = new ArrayList<>();
+        command.add(javaExecutable);
+        command.addAll(jvmOptions);
+        command.add("-XX:DumpLoadedClassList=" + classList);
+        command.addAll(List.of("-cp", classPath, ContextBootstrap.class.getName()));
+        command.addAll(locations);
+        return command;
+    }
+
+    public void createArchive(Path classList, Path archive) throws IOException, InterruptedException {
+        run(getDumpCommand(classList, archive));
+    }
+
+    public List<String> getDumpCommand(Path classList, Path archive) {
+        return List.of(javaExecutable,
+                "-Xshare:dump",
+                "-XX:SharedClassListFile=" + classList,
+                "-XX:SharedArchiveFile=" + archive,
+                "-cp", classPath);
+    }
+
+    /**
+     * Checks if a class list line names a JDK proxy class, which is generated at runtime and can't be archived.
+     */
+    static boolean isGeneratedProxy(String classListLine) {
+        return GENERATED_PROXY.matcher(classListLine).matches();
+    }
+
+    private void run(List<String> command) throws IOException, InterruptedException {
+        int exitCode = new ProcessBuilder(command).inheritIO().start().waitFor();
+        if (exitCode != 0) {
+            throw new IllegalStateException("Command failed with exit code " + exitCode + ": " + String.join(" ", command));
+        }
+    }
+
+    /**
+     * Parsed command line. JVM options are the {@code -D} options of the running JVM followed by
+     * the {@code -D} and {@code -J} arguments of the tool.
+     */
+    record Arguments(Path classList, Path archive, boolean dump, List<String> jvmOptions, List<String> locations) {
+
+        static Arguments parse(String[] args, List<String> inputArguments) {
+            Path classList = Path.of("ioc.classlist");
+            Path archive = Path.of("ioc.jsa");
+            boolean dump = false;
+            List<String> jvmOptions = new ArrayList<>();
+            inputArguments.stream().filter(argument -> argument.startsWith(PROPERTY_OPTION)).forEach(jvmOptions::add);
+            List<String> locations = new ArrayList<>();
+            for (String arg : args) {
+                if (arg.startsWith(CLASS_LIST_OPTION)) {
+                    classList = Path.of(arg.substring(CLASS_LIST_OPTION.length()));
+                } else if (arg.startsWith(ARCHIVE_OPTION)) {
+                    archive = Path.of(arg.substring(ARCHIVE_OPTION.length()));
+                } else if (arg.equals(DUMP_OPTION)) {
+                    dump = true;
+                } else if (arg.startsWith(PROPERTY_OPTION)) {
+                    jvmOptions.add(arg);
+                } else if (arg.startsWith(JVM_OPTION)) {
+                    jvmOptions.add(arg.substring(JVM_OPTION.length()));
+                } else {
+                    locations.add(arg);
+                }
+            }
+            if (locations.isEmpty()) {
+                throw new IllegalArgumentException(USAGE);
+            }
+            return new Arguments(classList, archive, dump, List.copyOf(jvmOptions), List.copyOf(locations));
+        }
+    }
+}
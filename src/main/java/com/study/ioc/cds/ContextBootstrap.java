@@ -0,0 +1,21 @@
+package com.study.ioc.cds;
+
+import com.study.ioc.context.ApplicationContext;
+import com.study.ioc.context.impl.GenericApplicationContext;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Starts a context from the given locations and exits. Run by {@link CdsArchiveTool} to record
+ * the classes a context loads, and usable as is to measure context startup.
+ */
+@Slf4j
+public class ContextBootstrap {
+
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            throw new IllegalArgumentException("Usage: ContextBootstrap <context location>...");
+        }
+        ApplicationContext context = new GenericApplicationContext(args);
+        log.info("Started context with {} beans.", context.getBeanNames().size());
+    }
+}
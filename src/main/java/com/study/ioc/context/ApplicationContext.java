@@ -1,6 +1,10 @@
 package com.study.ioc.context;
 
+import com.study.ioc.context.metrics.BeanLookupMetrics;
+
 import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
 
 public interface ApplicationContext {
     Object getBean(String beanId);
@@ -8,4 +12,42 @@ public interface ApplicationContext {
     <T> T getBean(String id, Class<T> clazz);
     List<String> getBeanNames();
 
+    /**
+     * Returns the beans with the given ids, in the same order, as an immutable list.
+     */
+    List<Object> getBeansById(String... beanIds);
+
+    /**
+     * Returns the single bean of each given class, in the same order, as an immutable list.
+     */
+    <T> List<T> getBeansByClass(Class<? extends T>... classes);
+
+    /**
+     * Returns an immutable map of bean id to bean for all beans of this context assignable to {@code type}.
+     * Factory products are resolved on every call.
+     */
+    <T> Map<String, T> getBeansOfType(Class<T> type);
+
+    void forEachBean(BiConsumer<String, Object> visitor);
+
+    /**
+     * Returns a handle to the bean with the given id. The bean must exist, it is resolved and counted
+     * as a lookup on every {@link BeanHandle#get()}.
+     */
+    <T> BeanHandle<T> getBeanHandle(String id, Class<T> clazz);
+
+    ApplicationContext getParent();
+
+    /**
+     * Delivers the event to all listener beans of its type in the calling thread.
+     */
+    void publishEvent(Object event);
+
+    /**
+     * Queues the event for delivery on a background thread. Events are delivered in publishing order.
+     */
+    void publishEventAsync(Object event);
+
+    BeanLookupMetrics getLookupMetrics();
+
 }
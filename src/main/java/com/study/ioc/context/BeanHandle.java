@@ -0,0 +1,25 @@
+package com.study.ioc.context;
+
+import java.util.function.Supplier;
+
+/**
+ * Reference to a bean found once by id. Callers can keep a handle and skip the lookup on every access.
+ * The bean is resolved on each {@link #get()}, so a non-singleton factory bean creates a new product each time.
+ */
+public final class BeanHandle<T> {
+    private final String id;
+    private final Supplier<T> resolver;
+
+    public BeanHandle(String id, Supplier<T> resolver) {
+        this.id = id;
+        this.resolver = resolver;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public T get() {
+        return resolver.get();
+    }
+}
@@ -0,0 +1,40 @@
+package com.study.ioc.context.impl;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Set;
+
+/**
+ * Immutable set iterating a fixed array in insertion order. Elements must be distinct and not null.
+ */
+final class ArraySet<E> extends AbstractSet<E> {
+    private final Object[] elements;
+    private final Set<Object> index;
+
+    ArraySet(Object[] elements) {
+        this.elements = elements;
+        this.index = Set.of(elements);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Iterator<E> iterator() {
+        return (Iterator<E>) Arrays.asList(elements).iterator();
+    }
+
+    @Override
+    public int size() {
+        return elements.length;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return index.contains(o);
+    }
+
+    @Override
+    public Object[] toArray() {
+        return elements.clone();
+    }
+}
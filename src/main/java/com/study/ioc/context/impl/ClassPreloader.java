@@ -0,0 +1,184 @@
+package com.study.ioc.context.impl;
+
+import com.study.ioc.exception.BeanInstantiationException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Loads and links bean classes on a pool of threads as soon as the definitions are known,
+ * so instantiation finds classes and constructors already resolved.
+ * <p>
+ * Classes are not initialized on the pool: static initializers run on the thread creating the bean,
+ * so classes whose initializers depend on each other can't deadlock. Preloaders with the same parallelism share
+ * one pool of that size, created on first use. Its threads stop when idle. The default parallelism is taken from
+ * the {@code ioc.preload.parallelism} system property or the number of available processors. Resolved constructors
+ * and factory methods are cached per class loader the classes are loaded with and shared as well, so short-lived
+ * contexts don't resolve the same classes again. Classes that could not be loaded are not cached.
+ */
+@Slf4j
+public class ClassPreloader {
+    public static final String PARALLELISM_PROPERTY = "ioc.preload.parallelism";
+
+    private static final int DEFAULT_PARALLELISM =
+            Integer.getInteger(PARALLELISM_PROPERTY, Runtime.getRuntime().availableProcessors());
+    private static final long KEEP_ALIVE_SECONDS = 60;
+    private static final Map<ClassLoader, LoaderCache> CACHES = new ConcurrentHashMap<>();
+    private static final Map<Integer, ExecutorService> EXECUTORS = new ConcurrentHashMap<>();
+
+    private final int parallelism;
+    private final ClassLoader classLoader;
+    private final Map<String, CompletableFuture<Constructor<?>>> constructors;
+    private final Map<String, MethodHandle> factoryMethods;
+
+    public ClassPreloader() {
+        this(DEFAULT_PARALLELISM);
+    }
+
+    /**
+     * @param parallelism number of threads loading classes in background, none if it is not greater than one
+     */
+    public ClassPreloader(int parallelism) {
+        this(parallelism, ClassPreloader.class.getClassLoader());
+    }
+
+    public ClassPreloader(int parallelism, ClassLoader classLoader) {
+        this.parallelism = parallelism;
+        this.classLoader = Objects.requireNonNull(classLoader);
+        LoaderCache cache = CACHES.computeIfAbsent(classLoader, loader -> new LoaderCache());
+        this.constructors = cache.constructors;
+        this.factoryMethods = cache.factoryMethods;
+    }
+
+    /**
+     * Starts loading the given classes in background and returns immediately.
+     */
+    public void preload(Collection<String> classNames) {
+        Set<String> distinctClassNames = new LinkedHashSet<>(classNames);
+        distinctClassNames.removeAll(constructors.keySet());
+        if (distinctClassNames.isEmpty() || parallelism <= 1) {
+            return;
+        }
+
+        Executor executor = getExecutor(parallelism);
+        distinctClassNames.forEach(className -> constructors.computeIfAbsent(className, name -> {
+            CompletableFuture<Constructor<?>> future = CompletableFuture.supplyAsync(() -> loadConstructor(name), executor);
+            future.whenComplete((constructor, e) -> {
+                if (e != null) {
+                    constructors.remove(name, future);
+                }
+            });
+            return future;
+        }));
+    }
+
+    /**
+     * Waits until the given classes are loaded and reports all missing classes in one exception.
+     * Returns normally if every class was found.
+     */
+    public void verify(Collection<String> classNames) {
+        List<String> missingClassNames = new ArrayList<>();
+        Throwable firstCause = null;
+        for (String className : new LinkedHashSet<>(classNames)) {
+            try {
+                getConstructor(className);
+            } catch (ClassNotFoundException | NoClassDefFoundError e) {
+                missingClassNames.add(className);
+                firstCause = firstCause == null ? e : firstCause;
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                log.debug("Class {} is loaded, but can't be instantiated.", className, e);
+            }
+        }
+        if (!missingClassNames.isEmpty()) {
+            throw new BeanInstantiationException("Bean classes not found: " + String.join(", ", missingClassNames), firstCause);
+        }
+    }
+
+    public Constructor<?> getConstructor(String className) throws ReflectiveOperationException {
+        CompletableFuture<Constructor<?>> future = constructors.computeIfAbsent(className,
+                name -> CompletableFuture.supplyAsync(() -> loadConstructor(name), Runnable::run));
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            constructors.remove(className, future);
+            Throwable cause = e.getCause();
+            if (cause instanceof ReflectiveOperationException reflectiveOperationException) {
+                throw reflectiveOperationException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw (RuntimeException) cause;
+        }
+    }
+
+    /**
+     * Returns a handle to the public no-arg factory method, static or instance one, of the given class.
+     * The lookup is done once per class and method name.
+     */
+    public MethodHandle getFactoryMethod(String className, String methodName, boolean isStatic)
+            throws ReflectiveOperationException {
+        String key = className + '#' + methodName;
+        MethodHandle factoryMethod = factoryMethods.get(key);
+        if (factoryMethod == null) {
+            factoryMethod = getFactoryMethod(Class.forName(className, false, classLoader), methodName, isStatic);
+            factoryMethods.putIfAbsent(key, factoryMethod);
+        }
+        return factoryMethod;
+    }
+
+    /**
+     * Returns a handle to the public no-arg factory method of a class that can't be looked up by name,
+     * e.g. the class of a bean created by a parent context, which may be a proxy. The handle is not cached.
+     */
+    public MethodHandle getFactoryMethod(Class<?> clazz, String methodName, boolean isStatic)
+            throws ReflectiveOperationException {
+        Method method = clazz.getMethod(methodName);
+        if (Modifier.isStatic(method.getModifiers()) != isStatic) {
+            throw new NoSuchMethodException((isStatic ? "Static" : "Instance") + " factory method not found: "
+                    + clazz.getName() + '#' + methodName);
+        }
+        method.setAccessible(true);
+        return MethodHandles.lookup().unreflect(method);
+    }
+
+    private Constructor<?> loadConstructor(String className) {
+        try {
+            return Class.forName(className, false, classLoader).getConstructor();
+        } catch (ReflectiveOperationException e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    private static class LoaderCache {
+        private final Map<String, CompletableFuture<Constructor<?>>> constructors = new ConcurrentHashMap<>();
+        private final Map<String, MethodHandle> factoryMethods = new ConcurrentHashMap<>();
+    }
+
+    static ExecutorService getExecutor(int parallelism) {
+        return EXECUTORS.computeIfAbsent(parallelism, size -> {
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(size, size, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(), new PreloadThreadFactory());
+            executor.allowCoreThreadTimeOut(true);
+            return executor;
+        });
+    }
+
+    private static class PreloadThreadFactory implements ThreadFactory {
+        private final AtomicInteger threadNumber = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "ioc-class-preloader-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
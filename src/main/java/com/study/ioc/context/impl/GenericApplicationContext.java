@@ -1,46 +1,146 @@
 package com.study.ioc.context.impl;
 
 import com.study.ioc.context.ApplicationContext;
+import com.study.ioc.context.BeanHandle;
+import com.study.ioc.context.metrics.BeanLookupMetrics;
+import com.study.ioc.context.metrics.LookupKind;
+import com.study.ioc.context.metrics.NoOpBeanLookupMetrics;
+import com.study.ioc.context.snapshot.BeanPlan;
+import com.study.ioc.context.snapshot.ContextSnapshot;
+import com.study.ioc.context.snapshot.ContextSnapshotStore;
+import com.study.ioc.context.snapshot.PropertyPlan;
 import com.study.ioc.entity.Bean;
+import com.study.ioc.event.ApplicationEventMulticaster;
+import com.study.ioc.event.ApplicationListener;
 import com.study.ioc.entity.BeanDefinition;
+import com.study.ioc.entity.CollectionDependency;
 import com.study.ioc.exception.BeanInstantiationException;
 import com.study.ioc.exception.NoSuchBeanDefinitionException;
 import com.study.ioc.exception.NoUniqueBeanOfTypeException;
 import com.study.ioc.exception.PostProcessBeanFactoryException;
+import com.study.ioc.factory.FactoryBean;
+import com.study.ioc.intercept.InterceptedProxy;
+import com.study.ioc.processor.BeanFactoryPostProcessor;
+import com.study.ioc.processor.BeanPostProcessor;
 import com.study.ioc.processor.PostConstruct;
 import com.study.ioc.reader.BeanDefinitionReader;
 import com.study.ioc.reader.sax.XmlBeanDefinitionReader;
 import lombok.NoArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import java.io.Serializable;
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Array;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
 
-import static java.util.stream.Collectors.toList;
 import static java.util.stream.Collectors.toMap;
 
 @Slf4j
 @NoArgsConstructor
 public class GenericApplicationContext implements ApplicationContext {
 
+    private static final Map<String, Class<?>> PRIMITIVE_TYPES = Map.of(
+            "int", int.class, "byte", byte.class, "short", short.class, "long", long.class,
+            "boolean", boolean.class, "char", char.class, "float", float.class, "double", double.class);
+
+    private ApplicationContext parent;
     private Map<String, Bean> beans;
+    private Map<Class<?>, List<Bean>> beansByClass;
+    private Bean[] beanArray;
+    private List<String> beanNames;
+    private Map<Class<?>, Bean[]> beansOfType;
+    private ApplicationEventMulticaster eventMulticaster;
+    private BeanLookupMetrics lookupMetrics = NoOpBeanLookupMetrics.INSTANCE;
+    private ClassPreloader classPreloader = new ClassPreloader();
+    private final Map<String, Object> factoryObjects = new ConcurrentHashMap<>();
+    private Map<String, Bean> beanPostProcessors = Map.of();
+    private Map<String, BeanDefinition> productDefinitions = Map.of();
+    private Map<String, BeanDefinition> pendingInjections = Map.of();
+    private Map<String, Bean> injectionTargets = Map.of();
 
     public GenericApplicationContext(String... paths) {
         this(new XmlBeanDefinitionReader(paths));
     }
 
+    public GenericApplicationContext(ApplicationContext parent, String... paths) {
+        this(parent, new XmlBeanDefinitionReader(paths));
+    }
+
     public GenericApplicationContext(BeanDefinitionReader definitionReader) {
+        this(null, definitionReader);
+    }
+
+    /**
+     * Creates a child context. Beans missing in this context are looked up in the parent,
+     * so shared infrastructure can be built once and reused by many short-lived children.
+     */
+    public GenericApplicationContext(ApplicationContext parent, BeanDefinitionReader definitionReader) {
+        this(parent, definitionReader, null);
+    }
+
+    /**
+     * Creates a context that records its resolved construction plan to {@code snapshotPath} after a successful
+     * startup. Later launches replay the plan without parsing, bean factory post-processing and setter lookup,
+     * as long as the checksum of the reader inputs stays the same. If the plan no longer fits the bean classes,
+     * the context is created from the definitions and the snapshot is recorded again.
+     */
+    public GenericApplicationContext(ApplicationContext parent, BeanDefinitionReader definitionReader, Path snapshotPath) {
+        this(parent, definitionReader, snapshotPath, NoOpBeanLookupMetrics.INSTANCE);
+    }
+
+    /**
+     * Creates a context that counts {@code getBean} lookups into {@code lookupMetrics}.
+     * Pass {@link NoOpBeanLookupMetrics#INSTANCE} to keep lookups free of any counting.
+     */
+    public GenericApplicationContext(ApplicationContext parent, BeanDefinitionReader definitionReader, Path snapshotPath,
+                                     BeanLookupMetrics lookupMetrics) {
+        this.parent = parent;
+        this.lookupMetrics = lookupMetrics;
+
+        ContextSnapshotStore snapshotStore = snapshotPath == null ? null : new ContextSnapshotStore(snapshotPath);
+        String checksum = snapshotStore == null ? null : definitionReader.getChecksum();
+        ContextSnapshot snapshot = checksum == null ? null : snapshotStore.load(checksum);
+        if (snapshot != null) {
+            try {
+                log.info("Restore context from snapshot.");
+                setBeans(restoreBeans(snapshot));
+                return;
+            } catch (RuntimeException | LinkageError e) {
+                log.warn("Can't restore context from snapshot {}, create it from bean definitions.", snapshotPath, e);
+                beanPostProcessors = Map.of();
+                factoryObjects.clear();
+            }
+        }
 
         log.info("Read bean definitions.");
         Map<String, BeanDefinition> beanDefinitions = definitionReader.getBeanDefinition();
-        Map<String, Bean> allBeans = createBeans(beanDefinitions);
 
-        Map<String, Bean> beanPostProcessors = filterBeanImplementsInterface(allBeans, "com.study.ioc.processor.BeanPostProcessor");
-        Map<String, Bean> beanDefinitionPostProcessors = filterBeanImplementsInterface(allBeans, "com.study.ioc.processor.BeanFactoryPostProcessor");
+        log.info("Preload bean classes.");
+        List<String> classNames = beanDefinitions.values().stream()
+                .map(BeanDefinition::getClassName)
+                .filter(Objects::nonNull)
+                .toList();
+        classPreloader.preload(classNames);
+        // factory methods run once, after post-processors are known, so their products are never post-processors
+        Map<String, BeanDefinition> postProcessorCandidates = new LinkedHashMap<>(beanDefinitions);
+        postProcessorCandidates.values().removeIf(beanDefinition -> beanDefinition.getFactoryMethod() != null);
+        Map<String, Bean> allBeans = createBeans(postProcessorCandidates, classNames);
+
+        Map<String, Bean> beanPostProcessors = filterBeanImplementsInterface(allBeans, BeanPostProcessor.class);
+        Map<String, Bean> beanDefinitionPostProcessors = filterBeanImplementsInterface(allBeans, BeanFactoryPostProcessor.class);
 
         beanPostProcessors.keySet().forEach(beanDefinitions::remove);
         beanDefinitionPostProcessors.keySet().forEach(beanDefinitions::remove);
+        this.beanPostProcessors = beanPostProcessors;
 
         log.info("Post process bean definitions.");
         postProcessBeanDefinitions(beanDefinitions.values().stream().toList(), beanDefinitionPostProcessors);
@@ -53,16 +153,75 @@ public class GenericApplicationContext implements ApplicationContext {
         log.info("Run init methods on beans start.");
         runInitMethods(beans);
         log.info("Run init methods on beans end.");
+        Map<String, Bean> initializedBeans = beans;
         log.info("Run post process after initialization methods on beans.");
         beans = postProcessBeans(beans, beanPostProcessors, "postProcessAfterInitialization");
 
         beanPostProcessors.keySet().forEach(beans::remove);
         beanDefinitionPostProcessors.keySet().forEach(beans::remove);
 
+        Map<String, BeanDefinition> beanDependencies = new LinkedHashMap<>(beanDefinitions);
+        productDefinitions = new HashMap<>();
+        beanDefinitions.forEach((id, beanDefinition) -> {
+            if (initializedBeans.get(id).getValue() instanceof MethodFactoryBean) {
+                productDefinitions.put(id, beanDependencies.remove(id));
+            }
+        });
         log.info("Inject value dependencies.");
-        injectValueDependencies(beanDefinitions, beans);
-        log.info("Inject reference dependencies.");
-        injectRefDependencies(beanDefinitions, beans);
+        injectValueDependencies(beanDependencies, initializedBeans);
+        log.info("Inject reference and collection dependencies.");
+        pendingInjections = beanDependencies;
+        injectionTargets = initializedBeans;
+        while (!pendingInjections.isEmpty()) {
+            injectPendingDependencies(pendingInjections.keySet().iterator().next());
+        }
+        pendingInjections = Map.of();
+        injectionTargets = Map.of();
+
+        setBeans(beans);
+
+        if (checksum != null && !isRecordable(beanDefinitions)) {
+            log.info("Skip context snapshot, collection dependencies and factory methods are not recorded.");
+        } else if (checksum != null) {
+            log.info("Record context snapshot.");
+            snapshotStore.save(createSnapshot(checksum, beanPostProcessors, beanDefinitions, initializedBeans));
+        }
+    }
+
+    ContextSnapshot createSnapshot(String checksum, Map<String, Bean> beanPostProcessors,
+                                   Map<String, BeanDefinition> beanDefinitions, Map<String, Bean> beans) {
+        List<BeanPlan> postProcessorPlans = beanPostProcessors.values().stream()
+                .map(bean -> new BeanPlan(bean.getId(), bean.getValue().getClass().getName(), List.of(), List.of()))
+                .toList();
+        List<BeanPlan> beanPlans = beans.values().stream()
+                .map(bean -> createBeanPlan(beanDefinitions.get(bean.getId()), bean.getValue()))
+                .toList();
+        return new ContextSnapshot(checksum, postProcessorPlans, beanPlans);
+    }
+
+    Map<String, Bean> restoreBeans(ContextSnapshot snapshot) {
+        classPreloader.preload(Stream.concat(snapshot.getPostProcessorPlans().stream(), snapshot.getBeanPlans().stream())
+                .map(BeanPlan::getClassName)
+                .toList());
+        Map<String, Bean> beanPostProcessors = createBeans(toBeanDefinitions(snapshot.getPostProcessorPlans()));
+        this.beanPostProcessors = beanPostProcessors;
+        Map<String, Bean> beans = createBeans(toBeanDefinitions(snapshot.getBeanPlans()));
+
+        Map<String, Bean> initializedBeans = postProcessBeans(beans, beanPostProcessors, "postProcessBeforeInitialization");
+        runInitMethods(initializedBeans);
+        Map<String, Bean> processedBeans = postProcessBeans(initializedBeans, beanPostProcessors, "postProcessAfterInitialization");
+
+        snapshot.getBeanPlans().forEach(plan -> {
+            Object beanForInject = initializedBeans.get(plan.getId()).getValue();
+            plan.getValueProperties().forEach(property ->
+                    invokeSetter(plan.getId(), beanForInject, property, property.getValue()));
+        });
+        snapshot.getBeanPlans().forEach(plan -> {
+            Object beanForInject = initializedBeans.get(plan.getId()).getValue();
+            plan.getRefProperties().forEach(property ->
+                    invokeSetter(plan.getId(), beanForInject, property, getRefValue(processedBeans, (String) property.getValue())));
+        });
+        return processedBeans;
     }
 
     void runInitMethods(Map<String, Bean> beans) {
@@ -91,8 +250,8 @@ public class GenericApplicationContext implements ApplicationContext {
             Object object = entry.getValue().getValue();
             for (Bean bean : systemBeans.values()) {
                 try {
-                    Method postProcessBeforeInitializationMethod = bean.getValue().getClass()
-                            .getDeclaredMethod(methodName, Object.class, String.class);
+                    Method postProcessBeforeInitializationMethod = BeanPostProcessor.class
+                            .getMethod(methodName, Object.class, String.class);
 
                     object = postProcessBeforeInitializationMethod.invoke(bean.getValue(), object, entry.getKey());
                 } catch (Exception e) {
@@ -104,15 +263,15 @@ public class GenericApplicationContext implements ApplicationContext {
                     .id(entry.getKey())
                     .build();
 
-        }).collect(toMap(Bean::getId, bean -> bean));
+        }).collect(toMap(Bean::getId, bean -> bean, (first, second) -> first, LinkedHashMap::new));
     }
 
     void postProcessBeanDefinitions(List<BeanDefinition> beanDefinitionList, Map<String, Bean> systemBeans) {
         systemBeans.values().forEach(entry -> {
             Object objectForProcess = entry.getValue();
             try {
-                Method postProcessBeanFactoryMethod = objectForProcess.getClass()
-                        .getDeclaredMethod("postProcessBeanFactory", List.class);
+                Method postProcessBeanFactoryMethod = BeanFactoryPostProcessor.class
+                        .getMethod("postProcessBeanFactory", List.class);
                 postProcessBeanFactoryMethod.invoke(objectForProcess, beanDefinitionList);
             } catch (Exception e) {
                 throw new PostProcessBeanFactoryException("Exception while post process bean definition " + entry.getId(), e);
@@ -122,49 +281,190 @@ public class GenericApplicationContext implements ApplicationContext {
 
     @Override
     public Object getBean(String beanId) {
-        List<Bean> beansById = beans.values().stream()
-                .filter(bean -> Objects.equals(bean.getId(), beanId))
-                .collect(toList());
-
-        return checkIfOneBeanExistAndReturn(beansById, null, beanId);
+        Bean bean = beans.get(beanId);
+        if (bean != null) {
+            lookupMetrics.recordHit(LookupKind.BY_ID, beanId);
+            return getObject(bean);
+        }
+        Object factoryBean = getFactoryBean(beans, beanId);
+        if (factoryBean != null) {
+            lookupMetrics.recordHit(LookupKind.BY_ID, beanId);
+            return factoryBean;
+        }
+        if (parent != null) {
+            lookupMetrics.recordMiss(LookupKind.BY_ID, beanId, 0);
+            return parent.getBean(beanId);
+        }
+        return checkIfOneBeanExistAndReturn(List.of(), null, beanId, LookupKind.BY_ID);
     }
 
     @Override
     public <T> T getBean(Class<T> clazz) {
-        List<Bean> beansByClass = beans.values().stream()
-                .filter(bean -> Objects.equals(bean.getValue().getClass(), clazz))
-                .collect(toList());
+        List<Bean> beansByClass = this.beansByClass.getOrDefault(clazz, List.of());
+        if (beansByClass.isEmpty() && parent != null) {
+            lookupMetrics.recordMiss(LookupKind.BY_TYPE, clazz.getName(), 0);
+            return parent.getBean(clazz);
+        }
 
-        return clazz.cast(checkIfOneBeanExistAndReturn(beansByClass, clazz, null));
+        return clazz.cast(checkIfOneBeanExistAndReturn(beansByClass, clazz, null, LookupKind.BY_TYPE));
     }
 
     @Override
     public <T> T getBean(String id, Class<T> clazz) {
-        List<Bean> resultBeans = beans.values().stream()
-                .filter(bean -> Objects.equals(bean.getValue().getClass(), clazz) && Objects.equals(bean.getId(), id))
-                .collect(toList());
+        Bean bean = beans.get(id);
+        if (bean == null && parent != null) {
+            lookupMetrics.recordMiss(LookupKind.BY_ID_AND_TYPE, id, 0);
+            return parent.getBean(id, clazz);
+        }
+        List<Bean> resultBeans = bean != null && bean.getValue() != null && getBeanTypes(bean).contains(clazz)
+                ? List.of(bean)
+                : List.of();
+
+        return clazz.cast(checkIfOneBeanExistAndReturn(resultBeans, clazz, id, LookupKind.BY_ID_AND_TYPE));
+    }
 
-        return clazz.cast(checkIfOneBeanExistAndReturn(resultBeans, clazz, id));
+    @Override
+    public ApplicationContext getParent() {
+        return parent;
+    }
+
+    @Override
+    public void publishEvent(Object event) {
+        eventMulticaster.multicastEvent(event);
+    }
+
+    @Override
+    public void publishEventAsync(Object event) {
+        eventMulticaster.multicastEventAsync(event);
+    }
+
+    @Override
+    public BeanLookupMetrics getLookupMetrics() {
+        return lookupMetrics;
     }
 
     @Override
     public List<String> getBeanNames() {
-        return new ArrayList<>(beans.keySet());
+        return beanNames;
+    }
+
+    @Override
+    public List<Object> getBeansById(String... beanIds) {
+        Object[] result = new Object[beanIds.length];
+        for (int i = 0; i < beanIds.length; i++) {
+            result[i] = getBean(beanIds[i]);
+        }
+        return Collections.unmodifiableList(Arrays.asList(result));
+    }
+
+    @Override
+    public <T> List<T> getBeansByClass(Class<? extends T>... classes) {
+        Object[] result = new Object[classes.length];
+        for (int i = 0; i < classes.length; i++) {
+            result[i] = getBean(classes[i]);
+        }
+        @SuppressWarnings("unchecked")
+        List<T> beans = (List<T>) Collections.unmodifiableList(Arrays.asList(result));
+        return beans;
+    }
+
+    /**
+     * Returns the beans of a type. Only the matching beans are cached per type, factory products are
+     * resolved on every call, so a non-singleton factory creates a new product each time.
+     */
+    @Override
+    public <T> Map<String, T> getBeansOfType(Class<T> type) {
+        Bean[] typedBeans = beansOfType.computeIfAbsent(type, this::findBeansOfType);
+        Map<String, T> result = new LinkedHashMap<>();
+        for (Bean bean : typedBeans) {
+            result.put(bean.getId(), type.cast(getIndexedObject(bean)));
+        }
+        return Collections.unmodifiableMap(result);
+    }
+
+    @Override
+    public void forEachBean(BiConsumer<String, Object> visitor) {
+        for (Bean bean : beanArray) {
+            visitor.accept(bean.getId(), getObject(bean));
+        }
+    }
+
+    @Override
+    public <T> BeanHandle<T> getBeanHandle(String id, Class<T> clazz) {
+        Bean bean = beans.get(id);
+        Object factoryBean = bean == null ? getFactoryBean(beans, id) : null;
+        if (bean == null && factoryBean == null) {
+            if (parent != null) {
+                return parent.getBeanHandle(id, clazz);
+            }
+            checkIfOneBeanExistAndReturn(List.of(), null, id, LookupKind.BY_ID);
+        }
+        return new BeanHandle<>(id, () -> {
+            lookupMetrics.recordHit(LookupKind.BY_ID, id);
+            return clazz.cast(bean != null ? getObject(bean) : factoryBean);
+        });
     }
 
     Map<String, Bean> createBeans(Map<String, BeanDefinition> beanDefinitionMap) {
-        Map<String, Bean> result = new HashMap<>();
+        Map<String, Bean> result = new LinkedHashMap<>();
         beanDefinitionMap.forEach((key, value) -> {
             try {
-                Constructor<?> constructor = Class.forName(value.getClassName()).getConstructor();
-                result.put(key, new Bean(value.getId(), constructor.newInstance()));
-            } catch (Exception e) {
+                result.put(key, new Bean(value.getId(), createBean(beanDefinitionMap, value, result)));
+            } catch (Throwable e) {
                 throw new BeanInstantiationException("Exception while create bean with id: " + key, e);
             }
         });
         return result;
     }
 
+    /**
+     * Creates a bean with its no-arg constructor or static factory method. A {@code factory-bean} definition
+     * becomes a {@link FactoryBean} calling the factory method on the factory bean once it is first needed.
+     */
+    private Object createBean(Map<String, BeanDefinition> beanDefinitionMap, BeanDefinition beanDefinition,
+                              Map<String, Bean> createdBeans) throws Throwable {
+        String factoryBeanId = beanDefinition.getFactoryBean();
+        if (factoryBeanId != null) {
+            MethodHandle factoryMethod = getFactoryMethod(beanDefinitionMap, factoryBeanId, beanDefinition.getFactoryMethod());
+            return new MethodFactoryBean(factoryBeanId, () -> getRefValue(createdBeans, factoryBeanId), factoryMethod);
+        }
+        if (beanDefinition.getFactoryMethod() != null) {
+            return classPreloader.getFactoryMethod(beanDefinition.getClassName(), beanDefinition.getFactoryMethod(), true)
+                    .invoke();
+        }
+        Constructor<?> constructor = classPreloader.getConstructor(beanDefinition.getClassName());
+        return constructor.newInstance();
+    }
+
+    /**
+     * Resolves the factory method by the class of the factory definition, or by the class of the bean
+     * the parent exposes under the factory id, which may be a product or a proxy without a resolvable name.
+     */
+    private MethodHandle getFactoryMethod(Map<String, BeanDefinition> beanDefinitionMap, String factoryBeanId,
+                                          String methodName) throws ReflectiveOperationException {
+        BeanDefinition factoryBeanDefinition = beanDefinitionMap.get(factoryBeanId);
+        if (factoryBeanDefinition != null && factoryBeanDefinition.getClassName() != null) {
+            return classPreloader.getFactoryMethod(factoryBeanDefinition.getClassName(), methodName, false);
+        }
+        if (parent != null) {
+            return classPreloader.getFactoryMethod(parent.getBean(factoryBeanId).getClass(), methodName, false);
+        }
+        throw new NoSuchBeanDefinitionException(factoryBeanId, null);
+    }
+
+    /**
+     * Creates beans while their classes are still being preloaded. If creation fails,
+     * all missing classes are reported together instead of only the first one.
+     */
+    private Map<String, Bean> createBeans(Map<String, BeanDefinition> beanDefinitionMap, List<String> classNames) {
+        try {
+            return createBeans(beanDefinitionMap);
+        } catch (BeanInstantiationException e) {
+            classPreloader.verify(classNames);
+            throw e;
+        }
+    }
+
     void injectValueDependencies(Map<String, BeanDefinition> beanDefinitions, Map<String, Bean> beans) {
         beanDefinitions.values().forEach(beanDefinition -> {
             beanDefinition.getValueDependencies().forEach((fieldName, value) -> {
@@ -179,38 +479,386 @@ public class GenericApplicationContext implements ApplicationContext {
     }
 
     void injectRefDependencies(Map<String, BeanDefinition> beanDefinitions, Map<String, Bean> beans) {
+        injectRefDependencies(beanDefinitions, beans, beans);
+    }
+
+    /**
+     * Injects into {@code targetBeans} the referenced beans as exposed by the context, e.g. proxies
+     * created in {@code postProcessAfterInitialization}, while setters are called on the targets themselves.
+     */
+    void injectRefDependencies(Map<String, BeanDefinition> beanDefinitions, Map<String, Bean> targetBeans,
+                               Map<String, Bean> exposedBeans) {
         beanDefinitions.forEach((beanDefKey, value) -> value.getRefDependencies().forEach((key, injectedBeanName) -> {
-            Object beanForInject = beans.get(beanDefKey).getValue();
+            Object beanForInject = targetBeans.get(beanDefKey).getValue();
             Method setter = getSetter(beanForInject, key);
 
             try {
-                setter.invoke(beanForInject, beans.get(injectedBeanName).getValue());
+                setter.invoke(beanForInject, getRefValue(exposedBeans, injectedBeanName));
             } catch (Exception e) {
                 throw new BeanInstantiationException("Exception while inject reference dependency bean with id: " + beanDefKey, e);
             }
         }));
     }
 
+    void injectCollectionDependencies(Map<String, BeanDefinition> beanDefinitions, Map<String, Bean> targetBeans,
+                                      Map<String, Bean> exposedBeans) {
+        beanDefinitions.forEach((beanDefKey, value) -> {
+            if (value.getCollectionDependencies() == null) {
+                return;
+            }
+            value.getCollectionDependencies().forEach((key, dependency) -> {
+                Object beanForInject = targetBeans.get(beanDefKey).getValue();
+                Method setter = getSetter(beanForInject, key);
+
+                try {
+                    setter.invoke(beanForInject, createCollection(beanDefKey, dependency, exposedBeans,
+                            setter.getParameterTypes()[0], setter.getGenericParameterTypes()[0]));
+                } catch (Exception e) {
+                    throw new BeanInstantiationException("Exception while inject collection dependency bean with id: " + beanDefKey, e);
+                }
+            });
+        });
+    }
+
+    /**
+     * Resolves the elements into an array once and exposes it as an array, an immutable list or set over it,
+     * or an immutable map, depending on the dependency kind and the setter parameter. Beans of the element type
+     * come first, in definition order, followed by the declared elements. Values are converted to the array
+     * component type or to the type argument of the parameter, map keys to the key type argument. A map of all beans
+     * of the element type is keyed by bean ids, so its key type must accept strings.
+     */
+    private Object createCollection(String beanId, CollectionDependency dependency, Map<String, Bean> exposedBeans,
+                                    Class<?> parameterType, Type genericParameterType) throws ClassNotFoundException {
+        Map<String, Object> beansOfElementType = dependency.getElementType() == null
+                ? Map.of()
+                : collectBeansOfType(Class.forName(dependency.getElementType()), beanId, exposedBeans);
+        List<CollectionDependency.Element> elements = dependency.getElements();
+
+        if (dependency.getKind() == CollectionDependency.Kind.MAP) {
+            Class<?> keyType = getTypeArgument(genericParameterType, 0);
+            Class<?> valueType = getTypeArgument(genericParameterType, 1);
+            if (dependency.getElementType() != null && !keyType.isAssignableFrom(String.class)) {
+                throw new BeanInstantiationException("Map of beans of type " + dependency.getElementType()
+                        + " is keyed by bean id and can't have keys of " + keyType.getName(), null);
+            }
+            Map<Object, Object> result = new LinkedHashMap<>(beansOfElementType);
+            elements.forEach(element -> result.put(castValue(element.getKey(), keyType),
+                    getElementValue(element, exposedBeans, valueType)));
+            return Collections.unmodifiableMap(result);
+        }
+
+        Class<?> elementType = parameterType.isArray()
+                ? parameterType.getComponentType()
+                : getTypeArgument(genericParameterType, 0);
+
+        Object[] values = new Object[beansOfElementType.size() + elements.size()];
+        int index = 0;
+        for (Object bean : beansOfElementType.values()) {
+            values[index++] = bean;
+        }
+        for (CollectionDependency.Element element : elements) {
+            values[index++] = getElementValue(element, exposedBeans, elementType);
+        }
+        if (dependency.getKind() == CollectionDependency.Kind.SET) {
+            values = new LinkedHashSet<>(Arrays.asList(values)).toArray();
+        }
+
+        if (parameterType.isArray()) {
+            Object array = Array.newInstance(elementType, values.length);
+            for (int i = 0; i < values.length; i++) {
+                Array.set(array, i, values[i]);
+            }
+            return array;
+        }
+        return dependency.getKind() == CollectionDependency.Kind.SET
+                ? new ArraySet<>(values)
+                : Collections.unmodifiableList(Arrays.asList(values));
+    }
+
+    private Object getElementValue(CollectionDependency.Element element, Map<String, Bean> exposedBeans, Class<?> valueType) {
+        return element.getRef() != null
+                ? getRefValue(exposedBeans, element.getRef())
+                : castValue(element.getValue(), valueType);
+    }
+
+    /**
+     * Returns the class of a type argument of a parameterized parameter type, {@code Object} if it isn't known.
+     */
+    private static Class<?> getTypeArgument(Type parameterType, int index) {
+        if (!(parameterType instanceof ParameterizedType parameterizedType)
+                || parameterizedType.getActualTypeArguments().length <= index) {
+            return Object.class;
+        }
+        Type typeArgument = parameterizedType.getActualTypeArguments()[index];
+        if (typeArgument instanceof WildcardType wildcardType) {
+            typeArgument = wildcardType.getUpperBounds()[0];
+        }
+        if (typeArgument instanceof ParameterizedType parameterizedTypeArgument) {
+            typeArgument = parameterizedTypeArgument.getRawType();
+        }
+        return typeArgument instanceof Class<?> clazz ? clazz : Object.class;
+    }
+
+    private Map<String, Object> collectBeansOfType(Class<?> type, String excludedBeanId, Map<String, Bean> exposedBeans) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        exposedBeans.forEach((id, bean) -> {
+            if (!id.equals(excludedBeanId) && isBeanOfType(bean, type)) {
+                result.put(id, getIndexedObject(bean));
+            }
+        });
+        if (parent != null) {
+            parent.getBeansOfType(type).forEach(result::putIfAbsent);
+        }
+        return result;
+    }
+
+    private boolean isRecordable(Map<String, BeanDefinition> beanDefinitions) {
+        return beanDefinitions.values().stream()
+                .noneMatch(beanDefinition -> beanDefinition.getFactoryMethod() != null
+                        || beanDefinition.getCollectionDependencies() != null
+                        && !beanDefinition.getCollectionDependencies().isEmpty());
+    }
+
+    /**
+     * Injects the reference and collection dependencies of a bean unless they are injected already. Beans are
+     * injected in definition order, but a factory bean and the factory of a {@code factory-method} are injected
+     * as soon as their product is needed, so products are only created by fully injected factories,
+     * unless a factory depends on its own product.
+     */
+    private void injectPendingDependencies(String beanId) {
+        if (pendingInjections.isEmpty()) {
+            return;
+        }
+        BeanDefinition beanDefinition = pendingInjections.remove(beanId);
+        if (beanDefinition == null) {
+            return;
+        }
+        Map<String, BeanDefinition> definition = Map.of(beanId, beanDefinition);
+        injectRefDependencies(definition, injectionTargets, beans);
+        injectCollectionDependencies(definition, injectionTargets, beans);
+    }
+
+    /**
+     * Returns the bean, or the product of a factory bean, creating and caching singleton products on first use.
+     * A singleton product is created under the lock of its bean, so concurrent first lookups create it once.
+     * The lock is per bean rather than a {@code computeIfAbsent} on the cache, as creating a product
+     * may create the products of the factories it depends on.
+     */
+    private Object getObject(Bean bean) {
+        if (!bean.isFactory()) {
+            return bean.getValue();
+        }
+        FactoryBean<?> factoryBean = (FactoryBean<?>) bean.getValue();
+        if (!factoryBean.isSingleton()) {
+            return createFactoryObject(bean.getId(), factoryBean);
+        }
+        Object object = factoryObjects.get(bean.getId());
+        if (object != null) {
+            return object;
+        }
+        synchronized (bean) {
+            object = factoryObjects.get(bean.getId());
+            if (object == null) {
+                object = createFactoryObject(bean.getId(), factoryBean);
+                Object existing = factoryObjects.putIfAbsent(bean.getId(), object);
+                object = existing != null ? existing : object;
+            }
+        }
+        return object;
+    }
+
+    /**
+     * Creates a product and runs the bean lifecycle on it: post-processors, init methods and, for a
+     * {@code factory-method} definition, the injection of its properties into the product.
+     */
+    private Object createFactoryObject(String beanId, FactoryBean<?> factoryBean) {
+        injectPendingDependencies(factoryBean instanceof MethodFactoryBean methodFactoryBean
+                ? methodFactoryBean.getFactoryBeanId()
+                : beanId);
+        Object object;
+        try {
+            object = factoryBean.getObject();
+        } catch (Exception e) {
+            throw new BeanInstantiationException("Exception while create object of factory bean with id: " + beanId, e);
+        }
+        if (object == null) {
+            throw new BeanInstantiationException("Factory bean with id: " + beanId + " returned null", null);
+        }
+
+        Map<String, Bean> initializedProducts = postProcessBeans(Map.of(beanId, new Bean(beanId, object)),
+                beanPostProcessors, "postProcessBeforeInitialization");
+        runInitMethods(initializedProducts);
+        Map<String, Bean> products = postProcessBeans(initializedProducts, beanPostProcessors, "postProcessAfterInitialization");
+        BeanDefinition productDefinition = productDefinitions.get(beanId);
+        if (productDefinition != null) {
+            Map<String, BeanDefinition> definition = Map.of(beanId, productDefinition);
+            injectValueDependencies(definition, initializedProducts);
+            injectRefDependencies(definition, initializedProducts, beans);
+            injectCollectionDependencies(definition, initializedProducts, beans);
+        }
+        return products.get(beanId).getValue();
+    }
+
+    /**
+     * Returns the object a bean is indexed by type for: the factory itself if the product type is not known,
+     * otherwise the bean or its product.
+     */
+    private Object getIndexedObject(Bean bean) {
+        if (bean.isFactory() && getObjectType(bean) == null) {
+            return bean.getValue();
+        }
+        return getObject(bean);
+    }
+
+    private boolean isBeanOfType(Bean bean, Class<?> type) {
+        if (bean.isFactory() && getObjectType(bean) != null) {
+            return type.isAssignableFrom(getObjectType(bean));
+        }
+        return type.isInstance(bean.getValue());
+    }
+
+    /**
+     * Returns the product type of a factory bean if it is known, otherwise the bean class.
+     * A factory bean with an unknown product type is found by its own class, and type lookups return the factory.
+     */
+    private Class<?> getBeanClass(Bean bean) {
+        if (bean.isFactory() && getObjectType(bean) != null) {
+            return getObjectType(bean);
+        }
+        return bean.getValue().getClass();
+    }
+
+    private static Class<?> getObjectType(Bean bean) {
+        return ((FactoryBean<?>) bean.getValue()).getObjectType();
+    }
+
+    /**
+     * Returns the types a bean is looked up by: its {@link #getBeanClass(Bean) class}, the superclasses and all
+     * interfaces. An intercepted bean is found by the same types of its target, as far as the proxy implements them,
+     * so lookups don't depend on whether a bean is proxied.
+     */
+    private List<Class<?>> getBeanTypes(Bean bean) {
+        Object value = bean.getValue() instanceof InterceptedProxy proxy ? proxy.getInterceptedTarget() : bean.getValue();
+        Class<?> beanClass = value == bean.getValue() ? getBeanClass(bean) : value.getClass();
+        Set<Class<?>> types = new LinkedHashSet<>();
+        for (Class<?> current = beanClass; current != null && current != Object.class; current = current.getSuperclass()) {
+            types.add(current);
+        }
+        for (Class<?> current = beanClass; current != null; current = current.getSuperclass()) {
+            collectInterfaces(current, types);
+        }
+        if (value != bean.getValue()) {
+            types.removeIf(type -> !type.isInstance(bean.getValue()));
+        }
+        return List.copyOf(types);
+    }
+
+    private static void collectInterfaces(Class<?> clazz, Set<Class<?>> types) {
+        for (Class<?> interfaceClass : clazz.getInterfaces()) {
+            if (types.add(interfaceClass)) {
+                collectInterfaces(interfaceClass, types);
+            }
+        }
+    }
+
+    private Object getFactoryBean(Map<String, Bean> beans, String beanId) {
+        if (!beanId.startsWith(FactoryBean.FACTORY_BEAN_PREFIX)) {
+            return null;
+        }
+        Bean bean = beans.get(beanId.substring(FactoryBean.FACTORY_BEAN_PREFIX.length()));
+        return bean != null && bean.isFactory() ? bean.getValue() : null;
+    }
+
     void injectValue(Object object, Method classMethod, String propertyValue) throws ReflectiveOperationException {
         classMethod.invoke(object, castValue(propertyValue, classMethod.getParameterTypes()[0]));
     }
 
     void setBeans(Map<String, Bean> beans) {
         this.beans = beans;
+        Map<Class<?>, List<Bean>> beansByClass = new HashMap<>();
+        for (Bean bean : beans.values()) {
+            if (bean.getValue() != null) {
+                getBeanTypes(bean).forEach(type -> beansByClass.computeIfAbsent(type, key -> new ArrayList<>()).add(bean));
+            }
+        }
+        this.beansByClass = beansByClass;
+        this.beanArray = beans.values().toArray(new Bean[0]);
+        this.beanNames = List.copyOf(beans.keySet());
+        this.beansOfType = new ConcurrentHashMap<>();
+        this.eventMulticaster = new ApplicationEventMulticaster(getBeansOfType(ApplicationListener.class).values());
+    }
+
+    private Bean[] findBeansOfType(Class<?> type) {
+        return Arrays.stream(beanArray).filter(bean -> isBeanOfType(bean, type)).toArray(Bean[]::new);
+    }
+
+    private BeanPlan createBeanPlan(BeanDefinition beanDefinition, Object bean) {
+        List<PropertyPlan> valueProperties = beanDefinition.getValueDependencies().entrySet().stream()
+                .map(entry -> {
+                    Method setter = getSetter(bean, entry.getKey());
+                    Class<?> parameterType = setter.getParameterTypes()[0];
+                    return new PropertyPlan(setter.getName(), parameterType.getName(),
+                            (Serializable) castValue(entry.getValue(), parameterType));
+                })
+                .toList();
+        List<PropertyPlan> refProperties = beanDefinition.getRefDependencies().entrySet().stream()
+                .map(entry -> {
+                    Method setter = getSetter(bean, entry.getKey());
+                    return new PropertyPlan(setter.getName(), setter.getParameterTypes()[0].getName(), entry.getValue());
+                })
+                .toList();
+        return new BeanPlan(beanDefinition.getId(), beanDefinition.getClassName(), valueProperties, refProperties);
+    }
+
+    private Map<String, BeanDefinition> toBeanDefinitions(List<BeanPlan> plans) {
+        Map<String, BeanDefinition> beanDefinitions = new LinkedHashMap<>();
+        plans.forEach(plan -> beanDefinitions.put(plan.getId(), new BeanDefinition(plan.getId(), plan.getClassName())));
+        return beanDefinitions;
+    }
+
+    private void invokeSetter(String beanId, Object beanForInject, PropertyPlan property, Object value) {
+        try {
+            String typeName = property.getParameterTypeName();
+            Class<?> parameterType = PRIMITIVE_TYPES.containsKey(typeName)
+                    ? PRIMITIVE_TYPES.get(typeName)
+                    : Class.forName(typeName);
+            beanForInject.getClass().getDeclaredMethod(property.getSetterName(), parameterType).invoke(beanForInject, value);
+        } catch (Exception e) {
+            throw new BeanInstantiationException("Exception while restore dependency of bean with id: " + beanId, e);
+        }
+    }
+
+    private Object getRefValue(Map<String, Bean> beans, String beanId) {
+        Bean bean = beans.get(beanId);
+        if (bean != null) {
+            return getObject(bean);
+        }
+        Object factoryBean = getFactoryBean(beans, beanId);
+        if (factoryBean != null) {
+            return factoryBean;
+        }
+        if (parent != null) {
+            return parent.getBean(beanId);
+        }
+        throw new NoSuchBeanDefinitionException(beanId, null);
     }
 
     private String getSetterName(String fieldName) {
         return "set" + fieldName.substring(0, 1).toUpperCase() + fieldName.substring(1);
     }
 
-    private Object checkIfOneBeanExistAndReturn(List<Bean> beans, Class<?> clazz, String id) {
-        if (beans.isEmpty()) {
-            throw new NoSuchBeanDefinitionException(id, clazz.getCanonicalName());
+    private Object checkIfOneBeanExistAndReturn(List<Bean> beans, Class<?> clazz, String id, LookupKind kind) {
+        if (beans.size() == 1) {
+            Bean bean = beans.get(0);
+            lookupMetrics.recordHit(kind, bean.getId());
+            return getIndexedObject(bean);
         }
-        if (beans.size() > 1) {
-            throw new NoUniqueBeanOfTypeException("Found " + beans.size() + " beans of " + clazz + " class.");
-        }
-        return beans.get(0).getValue();
+        long startNanos = System.nanoTime();
+        RuntimeException exception = beans.isEmpty()
+                ? new NoSuchBeanDefinitionException(id, clazz == null ? null : clazz.getCanonicalName())
+                : new NoUniqueBeanOfTypeException("Found " + beans.size() + " beans of " + clazz + " class.");
+        lookupMetrics.recordMiss(kind, id != null ? id : clazz.getName(), System.nanoTime() - startNanos);
+        throw exception;
     }
 
     private Object castValue(String propertyValue, Class<?> clazz) {
@@ -229,6 +877,18 @@ public class GenericApplicationContext implements ApplicationContext {
         } else if (boolean.class == clazz || Boolean.class == clazz) {
             return Boolean.valueOf(propertyValue);
 
+        } else if (double.class == clazz || Double.class == clazz) {
+            return Double.valueOf(propertyValue);
+
+        } else if (float.class == clazz || Float.class == clazz) {
+            return Float.valueOf(propertyValue);
+
+        } else if (char.class == clazz || Character.class == clazz) {
+            if (propertyValue.length() != 1) {
+                throw new IllegalArgumentException("Value '" + propertyValue + "' is not a single character");
+            }
+            return propertyValue.charAt(0);
+
         } else {
             return clazz.cast(propertyValue);
         }
@@ -245,10 +905,9 @@ public class GenericApplicationContext implements ApplicationContext {
         return setter.get();
     }
 
-    private Map<String, Bean> filterBeanImplementsInterface(Map<String, Bean> beans, String interfaceName) {
+    private Map<String, Bean> filterBeanImplementsInterface(Map<String, Bean> beans, Class<?> interfaceClass) {
         return beans.entrySet().stream()
-                .filter(bean -> Arrays.stream(bean.getValue().getValue().getClass().getInterfaces())
-                        .anyMatch(i -> i.getCanonicalName().equals(interfaceName)))
+                .filter(bean -> interfaceClass.isInstance(bean.getValue().getValue()))
                 .collect(toMap(Map.Entry::getKey, Map.Entry::getValue));
     }
 }
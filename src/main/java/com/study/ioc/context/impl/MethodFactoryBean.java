@@ -0,0 +1,46 @@
+package com.study.ioc.context.impl;
+
+import com.study.ioc.factory.FactoryBean;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.function.Supplier;
+
+/**
+ * Exposes a {@code factory-bean} and {@code factory-method} pair as a {@link FactoryBean}.
+ * The factory instance is looked up on first use, so it may be defined after the product.
+ */
+final class MethodFactoryBean implements FactoryBean<Object> {
+    private final String factoryBeanId;
+    private final Supplier<Object> factory;
+    private final MethodHandle factoryMethod;
+    private final Class<?> objectType;
+
+    MethodFactoryBean(String factoryBeanId, Supplier<Object> factory, MethodHandle factoryMethod) {
+        this.factoryBeanId = factoryBeanId;
+        this.factory = factory;
+        this.objectType = factoryMethod.type().returnType();
+        this.factoryMethod = factoryMethod.asType(MethodType.methodType(Object.class, Object.class));
+    }
+
+    @Override
+    public Object getObject() throws Exception {
+        try {
+            return (Object) factoryMethod.invokeExact(factory.get());
+        } catch (Exception | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new UndeclaredThrowableException(e);
+        }
+    }
+
+    @Override
+    public Class<?> getObjectType() {
+        return objectType;
+    }
+
+    String getFactoryBeanId() {
+        return factoryBeanId;
+    }
+}
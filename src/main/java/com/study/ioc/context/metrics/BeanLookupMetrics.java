@@ -0,0 +1,25 @@
+package com.study.ioc.context.metrics;
+
+import java.util.Map;
+
+/**
+ * Counters for {@code getBean} lookups. Hits are counted per resolved bean id,
+ * misses per requested id or class name, both also per {@link LookupKind}. A lookup a child context passes on
+ * to its parent counts as a miss of the child, without time, and as a hit or miss of the parent.
+ */
+public interface BeanLookupMetrics {
+
+    void recordHit(LookupKind kind, String beanId);
+
+    void recordMiss(LookupKind kind, String key, long elapsedNanos);
+
+    long getHitCount(LookupKind kind);
+
+    long getMissCount(LookupKind kind);
+
+    long getMissTimeNanos();
+
+    Map<String, Long> getHitCountsByBean();
+
+    Map<String, Long> getMissCountsByKey();
+}
@@ -0,0 +1,24 @@
+package com.study.ioc.context.metrics;
+
+import java.util.Map;
+
+public interface BeanLookupMetricsMXBean {
+
+    long getLookupsById();
+
+    long getLookupsByType();
+
+    long getLookupsByIdAndType();
+
+    long getMissesById();
+
+    long getMissesByType();
+
+    long getMissesByIdAndType();
+
+    long getMissTimeNanos();
+
+    Map<String, Long> getHitCountsByBean();
+
+    Map<String, Long> getMissCountsByKey();
+}
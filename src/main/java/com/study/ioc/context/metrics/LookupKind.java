@@ -0,0 +1,7 @@
+package com.study.ioc.context.metrics;
+
+public enum LookupKind {
+    BY_ID,
+    BY_TYPE,
+    BY_ID_AND_TYPE
+}
@@ -0,0 +1,46 @@
+package com.study.ioc.context.metrics;
+
+import java.util.Map;
+
+/**
+ * Default metrics of a context. Calls are empty, so the JIT removes them from the lookup path.
+ */
+public final class NoOpBeanLookupMetrics implements BeanLookupMetrics {
+    public static final NoOpBeanLookupMetrics INSTANCE = new NoOpBeanLookupMetrics();
+
+    private NoOpBeanLookupMetrics() {
+    }
+
+    @Override
+    public void recordHit(LookupKind kind, String beanId) {
+    }
+
+    @Override
+    public void recordMiss(LookupKind kind, String key, long elapsedNanos) {
+    }
+
+    @Override
+    public long getHitCount(LookupKind kind) {
+        return 0;
+    }
+
+    @Override
+    public long getMissCount(LookupKind kind) {
+        return 0;
+    }
+
+    @Override
+    public long getMissTimeNanos() {
+        return 0;
+    }
+
+    @Override
+    public Map<String, Long> getHitCountsByBean() {
+        return Map.of();
+    }
+
+    @Override
+    public Map<String, Long> getMissCountsByKey() {
+        return Map.of();
+    }
+}
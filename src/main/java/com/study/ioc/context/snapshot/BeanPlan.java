@@ -0,0 +1,20 @@
+package com.study.ioc.context.snapshot;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class BeanPlan implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private final String id;
+    private final String className;
+    private final List<PropertyPlan> valueProperties;
+    private final List<PropertyPlan> refProperties;
+}
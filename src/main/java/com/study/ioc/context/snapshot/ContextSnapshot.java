@@ -0,0 +1,23 @@
+package com.study.ioc.context.snapshot;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Resolved construction plan of a context, recorded after a successful startup.
+ * Bean plans are kept in init order so a replay runs init methods in the same order.
+ */
+@Getter
+@AllArgsConstructor
+public class ContextSnapshot implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private final String checksum;
+    private final List<BeanPlan> postProcessorPlans;
+    private final List<BeanPlan> beanPlans;
+}
@@ -0,0 +1,81 @@
+package com.study.ioc.context.snapshot;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Objects;
+
+@Slf4j
+public class ContextSnapshotStore {
+    /**
+     * Accepts only the snapshot classes and the values they can hold, so a replaced snapshot file
+     * can't instantiate arbitrary serializable classes.
+     */
+    private static final ObjectInputFilter SNAPSHOT_FILTER = ObjectInputFilter.Config.createFilter(
+            "maxdepth=10;maxrefs=10000000;maxarray=1000000;"
+                    + "com.study.ioc.context.snapshot.ContextSnapshot;com.study.ioc.context.snapshot.BeanPlan;"
+                    + "com.study.ioc.context.snapshot.PropertyPlan;java.util.CollSer;java.util.ImmutableCollections$ListN;"
+                    + "java.util.ImmutableCollections$List12;java.util.ArrayList;"
+                    + "java.lang.Object;java.lang.String;java.lang.Number;java.lang.Integer;java.lang.Long;"
+                    + "java.lang.Short;java.lang.Byte;java.lang.Boolean;java.lang.Character;"
+                    + "java.lang.Float;java.lang.Double;!*");
+
+    private final Path path;
+
+    public ContextSnapshotStore(Path path) {
+        this.path = path;
+    }
+
+    /**
+     * Returns the stored snapshot, or null if there is none, it can't be read,
+     * or it was recorded for different inputs.
+     */
+    public ContextSnapshot load(String checksum) {
+        if (!Files.isRegularFile(path)) {
+            return null;
+        }
+        try (ObjectInputStream inputStream = new ObjectInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            inputStream.setObjectInputFilter(SNAPSHOT_FILTER);
+            ContextSnapshot snapshot = (ContextSnapshot) inputStream.readObject();
+            if (!Objects.equals(snapshot.getChecksum(), checksum)) {
+                log.info("Context snapshot {} is outdated.", path);
+                return null;
+            }
+            return snapshot;
+        } catch (IOException | ClassNotFoundException | ClassCastException e) {
+            log.warn("Can't read context snapshot {}.", path, e);
+            return null;
+        }
+    }
+
+    public void save(ContextSnapshot snapshot) {
+        Path tempFile = null;
+        try {
+            Path parentDirectory = path.toAbsolutePath().getParent();
+            Files.createDirectories(parentDirectory);
+            tempFile = Files.createTempFile(parentDirectory, path.getFileName().toString(), ".tmp");
+            try (ObjectOutputStream outputStream = new ObjectOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+                outputStream.writeObject(snapshot);
+            }
+            Files.move(tempFile, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Can't write context snapshot {}.", path, e);
+        } finally {
+            deleteIfExists(tempFile);
+        }
+    }
+
+    private void deleteIfExists(Path tempFile) {
+        if (tempFile == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(tempFile);
+        } catch (IOException e) {
+            log.warn("Can't delete temporary snapshot file {}.", tempFile, e);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.study.ioc.context.snapshot;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * Resolved setter call. For value properties {@code value} holds the already converted value,
+ * for ref properties it holds the id of the referenced bean.
+ */
+@Getter
+@AllArgsConstructor
+public class PropertyPlan implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private final String setterName;
+    private final String parameterTypeName;
+    private final Serializable value;
+}
@@ -1,13 +1,23 @@
 package com.study.ioc.entity;
 
-import lombok.AllArgsConstructor;
+import com.study.ioc.factory.FactoryBean;
 import lombok.Builder;
 import lombok.Getter;
 
-@Builder
-@AllArgsConstructor
 @Getter
 public class Bean {
-    private String id;
-    private Object value;
+    private final String id;
+    private final Object value;
+    /**
+     * Whether the value is a {@link FactoryBean}, checked once here because a failing interface check
+     * on every lookup costs more than the lookup itself.
+     */
+    private final boolean factory;
+
+    @Builder
+    public Bean(String id, Object value) {
+        this.id = id;
+        this.value = value;
+        this.factory = value instanceof FactoryBean;
+    }
 }
@@ -13,6 +13,9 @@ public class BeanDefinition {
     private String className;
     private Map<String, String> valueDependencies;
     private Map<String, String> refDependencies;
+    private Map<String, CollectionDependency> collectionDependencies;
+    private String factoryBean;
+    private String factoryMethod;
 
     public BeanDefinition(String id, String className) {
         this.id = id;
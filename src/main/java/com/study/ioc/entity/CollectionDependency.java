@@ -0,0 +1,33 @@
+package com.study.ioc.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * A {@code <list>}, {@code <set>} or {@code <map>} property. Holds the declared elements in document order
+ * and, optionally, the class name whose beans are all injected ahead of them.
+ */
+@Getter
+@AllArgsConstructor
+public class CollectionDependency {
+    private final Kind kind;
+    private final String elementType;
+    private final List<Element> elements;
+
+    public enum Kind {
+        LIST, SET, MAP
+    }
+
+    /**
+     * A literal value or a bean reference; {@code key} is set for map entries only.
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class Element {
+        private final String key;
+        private final String value;
+        private final String ref;
+    }
+}
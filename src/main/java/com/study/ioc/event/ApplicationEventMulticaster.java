@@ -0,0 +1,207 @@
+package com.study.ioc.event;
+
+import com.study.ioc.intercept.InterceptedProxy;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Dispatches events to listeners through a table of event type to listener array.
+ * The table is filled for the listener event types on creation and for other event classes on first publish,
+ * so publishing is a map lookup and a loop over an array.
+ * <p>
+ * The event type of a listener is resolved once, from the type argument of {@link ApplicationListener}, through
+ * generic superclasses and superinterfaces, and from the target of an intercepted proxy. Lambdas and raw listeners
+ * don't keep their type argument and receive every event, so a lambda for a specific event type has to be declared
+ * with {@link ApplicationListener#forEventType(Class, ApplicationListener)}.
+ * <p>
+ * Asynchronous events are queued and delivered by one drain task at a time, in batches of up to
+ * {@code batchSize} events, which keeps them in publishing order. Unless an executor is given, all multicasters
+ * share one executor of virtual threads, or of daemon threads where virtual threads are not available.
+ */
+@Slf4j
+public class ApplicationEventMulticaster {
+    public static final String BATCH_SIZE_PROPERTY = "ioc.event.batch-size";
+    private static final ListenerEntry[] NO_LISTENERS = new ListenerEntry[0];
+
+    private final List<ListenerEntry> listeners;
+    private final Map<Class<?>, ListenerEntry[]> dispatchTable = new ConcurrentHashMap<>();
+    private final Queue<Object> asyncEvents = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+    private final int batchSize;
+    private final Executor executor;
+
+    @SuppressWarnings("rawtypes")
+    public ApplicationEventMulticaster(Collection<? extends ApplicationListener> listeners) {
+        this(listeners, null, Integer.getInteger(BATCH_SIZE_PROPERTY, 64));
+    }
+
+    /**
+     * @param executor  executor for asynchronous delivery, owned by the caller; if null, the shared executor is used
+     * @param batchSize maximum number of asynchronous events delivered by one task
+     */
+    @SuppressWarnings("rawtypes")
+    public ApplicationEventMulticaster(Collection<? extends ApplicationListener> listeners, Executor executor, int batchSize) {
+        this.listeners = listeners.stream()
+                .map(listener -> new ListenerEntry(listener, getEventType(listener)))
+                .toList();
+        this.executor = executor;
+        this.batchSize = Math.max(1, batchSize);
+        this.listeners.forEach(entry -> getListeners(entry.eventType()));
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public void multicastEvent(Object event) {
+        for (ListenerEntry entry : getListeners(event.getClass())) {
+            if (entry.eventType().isInstance(event)) {
+                ((ApplicationListener) entry.listener()).onApplicationEvent(event);
+            }
+        }
+    }
+
+    public void multicastEventAsync(Object event) {
+        if (getListeners(event.getClass()).length == 0) {
+            return;
+        }
+        asyncEvents.offer(event);
+        scheduleDrain();
+    }
+
+    private void scheduleDrain() {
+        if (drainScheduled.compareAndSet(false, true)) {
+            getExecutor().execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        for (int i = 0; i < batchSize; i++) {
+            Object event = asyncEvents.poll();
+            if (event == null) {
+                break;
+            }
+            try {
+                multicastEvent(event);
+            } catch (RuntimeException e) {
+                log.error("Exception while handle event {}", event, e);
+            }
+        }
+        drainScheduled.set(false);
+        if (!asyncEvents.isEmpty()) {
+            scheduleDrain();
+        }
+    }
+
+    private ListenerEntry[] getListeners(Class<?> eventClass) {
+        ListenerEntry[] result = dispatchTable.get(eventClass);
+        if (result == null) {
+            result = dispatchTable.computeIfAbsent(eventClass, this::findListeners);
+        }
+        return result;
+    }
+
+    private ListenerEntry[] findListeners(Class<?> eventClass) {
+        ListenerEntry[] result = listeners.stream()
+                .filter(entry -> entry.eventType().isAssignableFrom(eventClass))
+                .toArray(ListenerEntry[]::new);
+        return result.length == 0 ? NO_LISTENERS : result;
+    }
+
+    private Executor getExecutor() {
+        return executor != null ? executor : SharedExecutor.EXECUTOR;
+    }
+
+    private static Executor createDefaultExecutor() {
+        try {
+            return (Executor) MethodHandles.publicLookup()
+                    .findStatic(Executors.class, "newVirtualThreadPerTaskExecutor", MethodType.methodType(ExecutorService.class))
+                    .invoke();
+        } catch (Throwable e) {
+            log.debug("Virtual threads are not available, use platform threads for asynchronous events.");
+            return Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "ioc-event-multicaster");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * Resolves the type argument of {@link ApplicationListener} implemented by the class. Type variables are
+     * followed through the generic superclasses and superinterfaces, unbound ones resolve to their bound.
+     */
+    static Class<?> resolveEventType(Class<?> listenerClass) {
+        Type eventType = findEventType(listenerClass, Map.of());
+        return eventType == null ? Object.class : toClass(eventType);
+    }
+
+    private static Type findEventType(Type type, Map<TypeVariable<?>, Type> variables) {
+        Class<?> clazz;
+        Map<TypeVariable<?>, Type> typeArguments = new HashMap<>();
+        if (type instanceof ParameterizedType parameterizedType) {
+            clazz = (Class<?>) parameterizedType.getRawType();
+            TypeVariable<?>[] typeParameters = clazz.getTypeParameters();
+            Type[] actualTypeArguments = parameterizedType.getActualTypeArguments();
+            for (int i = 0; i < typeParameters.length; i++) {
+                Type argument = actualTypeArguments[i];
+                typeArguments.put(typeParameters[i], variables.getOrDefault(argument, argument));
+            }
+        } else if (type instanceof Class<?> rawClass) {
+            clazz = rawClass;
+        } else {
+            return null;
+        }
+
+        if (clazz == ApplicationListener.class) {
+            TypeVariable<?> eventVariable = ApplicationListener.class.getTypeParameters()[0];
+            return typeArguments.getOrDefault(eventVariable, eventVariable);
+        }
+        List<Type> supertypes = new ArrayList<>(List.of(clazz.getGenericInterfaces()));
+        if (clazz.getGenericSuperclass() != null) {
+            supertypes.add(0, clazz.getGenericSuperclass());
+        }
+        for (Type supertype : supertypes) {
+            Type eventType = findEventType(supertype, typeArguments);
+            if (eventType != null) {
+                return eventType;
+            }
+        }
+        return null;
+    }
+
+    private static Class<?> toClass(Type type) {
+        if (type instanceof Class<?> clazz) {
+            return clazz;
+        } else if (type instanceof ParameterizedType parameterizedType) {
+            return (Class<?>) parameterizedType.getRawType();
+        } else if (type instanceof GenericArrayType arrayType) {
+            return toClass(arrayType.getGenericComponentType()).arrayType();
+        } else if (type instanceof WildcardType wildcardType) {
+            return toClass(wildcardType.getUpperBounds()[0]);
+        } else if (type instanceof TypeVariable<?> variable) {
+            return toClass(variable.getBounds()[0]);
+        }
+        return Object.class;
+    }
+
+    private static Class<?> getEventType(ApplicationListener<?> listener) {
+        Object target = listener;
+        while (target instanceof InterceptedProxy proxy) {
+            target = proxy.getInterceptedTarget();
+        }
+        return target instanceof TypedApplicationListener<?> typedListener
+                ? typedListener.getEventType()
+                : resolveEventType(target.getClass());
+    }
+
+    private record ListenerEntry(ApplicationListener<?> listener, Class<?> eventType) {
+    }
+
+    private static class SharedExecutor {
+        private static final Executor EXECUTOR = createDefaultExecutor();
+    }
+}
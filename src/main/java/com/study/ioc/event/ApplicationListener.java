@@ -0,0 +1,19 @@
+package com.study.ioc.event;
+
+/**
+ * Bean that receives events published through the context. The event type is taken from the type argument,
+ * so {@code ApplicationListener<UserActivatedEvent>} only receives {@code UserActivatedEvent}s and their subclasses.
+ */
+@FunctionalInterface
+public interface ApplicationListener<E> {
+
+    void onApplicationEvent(E event);
+
+    /**
+     * Returns a listener that receives only events of {@code eventType}, e.g. for a lambda, which doesn't keep
+     * its type argument.
+     */
+    static <E> ApplicationListener<E> forEventType(Class<E> eventType, ApplicationListener<? super E> listener) {
+        return new TypedApplicationListener<>(eventType, listener);
+    }
+}
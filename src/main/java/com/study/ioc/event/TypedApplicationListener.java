@@ -0,0 +1,23 @@
+package com.study.ioc.event;
+
+/**
+ * Listener with an explicit event type, created by {@link ApplicationListener#forEventType(Class, ApplicationListener)}.
+ */
+final class TypedApplicationListener<E> implements ApplicationListener<E> {
+    private final Class<E> eventType;
+    private final ApplicationListener<? super E> listener;
+
+    TypedApplicationListener(Class<E> eventType, ApplicationListener<? super E> listener) {
+        this.eventType = eventType;
+        this.listener = listener;
+    }
+
+    @Override
+    public void onApplicationEvent(E event) {
+        listener.onApplicationEvent(event);
+    }
+
+    Class<E> getEventType() {
+        return eventType;
+    }
+}
@@ -0,0 +1,21 @@
+package com.study.ioc.factory;
+
+/**
+ * A bean that produces the object exposed under its id. The context creates the product on first lookup
+ * and, for singletons, keeps it. The factory itself is available under {@code "&" + id}.
+ */
+public interface FactoryBean<T> {
+    String FACTORY_BEAN_PREFIX = "&";
+
+    T getObject() throws Exception;
+
+    /**
+     * Returns the product type used to index the bean by class without creating the product,
+     * or {@code null} if it is not known in advance.
+     */
+    Class<?> getObjectType();
+
+    default boolean isSingleton() {
+        return true;
+    }
+}
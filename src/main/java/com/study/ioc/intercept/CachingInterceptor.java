@@ -0,0 +1,73 @@
+package com.study.ioc.intercept;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Caches results per target, method and arguments. Arguments must implement {@code equals} and {@code hashCode}.
+ * <p>
+ * At most {@code maxEntries} results are kept, the least recently used one is removed first,
+ * so the cache also holds a bounded number of targets and arguments.
+ */
+public class CachingInterceptor implements MethodInterceptor {
+    private static final int DEFAULT_MAX_ENTRIES = 1024;
+    private static final Object NULL_RESULT = new Object();
+
+    private final Map<CacheKey, Object> results;
+
+    public CachingInterceptor() {
+        this(DEFAULT_MAX_ENTRIES);
+    }
+
+    public CachingInterceptor(int maxEntries) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("Max entries must be positive, but was " + maxEntries);
+        }
+        this.results = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<CacheKey, Object> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        CacheKey key = new CacheKey(invocation.getTarget(), invocation.getMethod(), Arrays.asList(invocation.getArguments()));
+        Object result;
+        synchronized (results) {
+            result = results.get(key);
+        }
+        if (result == null) {
+            result = invocation.proceed();
+            synchronized (results) {
+                results.putIfAbsent(key, result == null ? NULL_RESULT : result);
+            }
+            return result;
+        }
+        return result == NULL_RESULT ? null : result;
+    }
+
+    int size() {
+        synchronized (results) {
+            return results.size();
+        }
+    }
+
+    private record CacheKey(Object target, Method method, List<Object> arguments) {
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof CacheKey key && target == key.target
+                    && method.equals(key.method) && arguments.equals(key.arguments);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (31 * System.identityHashCode(target) + method.hashCode()) + arguments.hashCode();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.study.ioc.intercept;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.UndeclaredThrowableException;
+
+/**
+ * Interceptor chain of one proxied method. Generated proxy classes call {@link #invoke(Object, Object[])}
+ * with the boxed arguments of every intercepted call.
+ */
+final class InterceptedMethod {
+    private final Method method;
+    private final MethodInterceptor[] interceptors;
+    private final TargetInvoker targetInvoker;
+    private final Class<?>[] exceptionTypes;
+
+    InterceptedMethod(Method method, MethodInterceptor[] interceptors, TargetInvoker targetInvoker) {
+        this.method = method;
+        this.interceptors = interceptors;
+        this.targetInvoker = targetInvoker;
+        this.exceptionTypes = method.getExceptionTypes();
+    }
+
+    /**
+     * Runs the chain. Checked exceptions the method doesn't declare are wrapped
+     * into an {@link UndeclaredThrowableException}, as a JDK proxy does.
+     * <p>
+     * The first interceptor is called from here rather than from {@link MethodInvocation#proceed()}, so with a single
+     * interceptor the JIT sees {@code proceed()} always calling the target and can keep the invocation
+     * and the arguments off the heap.
+     */
+    Object invoke(Object target, Object[] arguments) throws Throwable {
+        try {
+            if (interceptors.length == 0) {
+                return targetInvoker.invoke(target, arguments);
+            }
+            return interceptors[0].invoke(new MethodInvocation(target, method, arguments, interceptors, targetInvoker, 1));
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            for (Class<?> exceptionType : exceptionTypes) {
+                if (exceptionType.isInstance(e)) {
+                    throw e;
+                }
+            }
+            throw new UndeclaredThrowableException(e);
+        }
+    }
+
+    /**
+     * Implementation of {@code equals} for proxies: a proxy equals to itself, to its target
+     * and to other proxies of an equal target.
+     */
+    static boolean targetEquals(Object target, Object other) {
+        Object otherTarget = other instanceof InterceptedProxy proxy ? proxy.getInterceptedTarget() : other;
+        return target == otherTarget || target.equals(otherTarget);
+    }
+}
@@ -0,0 +1,12 @@
+package com.study.ioc.intercept;
+
+/**
+ * Implemented by every proxy created by {@link ProxyFactory}.
+ */
+public interface InterceptedProxy {
+
+    /**
+     * Returns the object the proxy calls after the interceptors.
+     */
+    Object getInterceptedTarget();
+}
@@ -0,0 +1,25 @@
+package com.study.ioc.intercept;
+
+import com.study.ioc.processor.BeanPostProcessor;
+
+/**
+ * Wraps beans into interceptor proxies after initialization. To use it from a context file,
+ * extend it with a no-arg constructor that passes the matcher and interceptors.
+ */
+public class InterceptingBeanPostProcessor implements BeanPostProcessor {
+    private final ProxyFactory proxyFactory;
+
+    public InterceptingBeanPostProcessor(MethodMatcher methodMatcher, MethodInterceptor... interceptors) {
+        this.proxyFactory = new ProxyFactory(methodMatcher, interceptors);
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String name) {
+        return bean;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String name) {
+        return proxyFactory.getProxy(bean);
+    }
+}
@@ -0,0 +1,11 @@
+package com.study.ioc.intercept;
+
+@FunctionalInterface
+public interface MethodInterceptor {
+
+    /**
+     * Called instead of the intercepted method. Call {@link MethodInvocation#proceed()} to continue
+     * with the next interceptor or the target method.
+     */
+    Object invoke(MethodInvocation invocation) throws Throwable;
+}
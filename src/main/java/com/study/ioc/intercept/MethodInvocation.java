@@ -0,0 +1,47 @@
+package com.study.ioc.intercept;
+
+import java.lang.reflect.Method;
+
+/**
+ * Call of an intercepted method. {@link #proceed()} may be called more than once, e.g. to retry.
+ */
+public final class MethodInvocation {
+    private final Object target;
+    private final Method method;
+    private final Object[] arguments;
+    private final MethodInterceptor[] interceptors;
+    private final TargetInvoker targetInvoker;
+    private final int index;
+
+    /**
+     * @param index position of the interceptor {@link #proceed()} calls next
+     */
+    MethodInvocation(Object target, Method method, Object[] arguments, MethodInterceptor[] interceptors,
+                             TargetInvoker targetInvoker, int index) {
+        this.target = target;
+        this.method = method;
+        this.arguments = arguments;
+        this.interceptors = interceptors;
+        this.targetInvoker = targetInvoker;
+        this.index = index;
+    }
+
+    public Object getTarget() {
+        return target;
+    }
+
+    public Method getMethod() {
+        return method;
+    }
+
+    public Object[] getArguments() {
+        return arguments;
+    }
+
+    public Object proceed() throws Throwable {
+        if (index == interceptors.length) {
+            return targetInvoker.invoke(target, arguments);
+        }
+        return interceptors[index].invoke(new MethodInvocation(target, method, arguments, interceptors, targetInvoker, index + 1));
+    }
+}
@@ -0,0 +1,31 @@
+package com.study.ioc.intercept;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+
+@FunctionalInterface
+public interface MethodMatcher {
+
+    /**
+     * @param method      method called through the proxy, declared by the target class or one of its interfaces
+     * @param targetClass class of the proxied bean
+     */
+    boolean matches(Method method, Class<?> targetClass);
+
+    /**
+     * Matches methods whose implementation in the target class is annotated with {@code annotation}.
+     */
+    static MethodMatcher annotatedWith(Class<? extends Annotation> annotation) {
+        return (method, targetClass) -> {
+            try {
+                return targetClass.getMethod(method.getName(), method.getParameterTypes()).isAnnotationPresent(annotation);
+            } catch (NoSuchMethodException e) {
+                return false;
+            }
+        };
+    }
+
+    static MethodMatcher named(String methodName) {
+        return (method, targetClass) -> method.getName().equals(methodName);
+    }
+}
@@ -0,0 +1,431 @@
+package com.study.ioc.intercept;
+
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes the class file of a proxy class. A proxy extends the target class or {@code Object}, keeps the target
+ * and the intercepted methods in two fields and implements every proxied method with plain bytecode:
+ * forwarded methods call the target directly, intercepted ones box the arguments and call their
+ * {@link InterceptedMethod}. The code has no branches, so the class needs no stack map frames.
+ * <p>
+ * The class has no constructor: {@link ProxyFactory} allocates proxies without running a constructor
+ * and sets the fields through a lookup of the defined class.
+ * <p>
+ * Any public instance method can be proxied: primitive, array and reference parameters and results, {@code void},
+ * up to the 255 parameter slots the JVM allows, and any number of methods, until the constant pool limit
+ * of 65535 entries is reached, which is reported when the class is written.
+ */
+final class ProxyClassGenerator {
+    static final String PROXY_CLASS_NAME = ProxyClassGenerator.class.getPackageName() + ".InterceptorProxy";
+
+    private static final int CLASS_VERSION = 52;
+    private static final int ACC_PUBLIC = 0x0001;
+    private static final int ACC_PRIVATE = 0x0002;
+    private static final int ACC_FINAL = 0x0010;
+    private static final int ACC_SUPER = 0x0020;
+    private static final String OBJECT = "java/lang/Object";
+    static final String TARGET_FIELD = "target";
+    static final String METHODS_FIELD = "methods";
+
+    private static final String METHODS_DESCRIPTOR = InterceptedMethod[].class.descriptorString();
+    private static final String INTERCEPTED_METHOD = internalName(InterceptedMethod.class);
+    private static final String INVOKE_DESCRIPTOR = "(Ljava/lang/Object;[Ljava/lang/Object;)Ljava/lang/Object;";
+
+    private final ConstantPool constantPool = new ConstantPool();
+    private final ByteWriter methods = new ByteWriter();
+    private final String proxyName = internalName(PROXY_CLASS_NAME);
+    private int methodCount;
+
+    private ProxyClassGenerator() {
+    }
+
+    /**
+     * @param superclass class the proxy extends, its constructors are never called
+     * @param interfaces interfaces the proxy implements besides {@link InterceptedProxy}
+     * @param methods    methods to implement, except {@code equals}, {@code hashCode} and {@code toString},
+     *                   which are always forwarded to the target
+     */
+    static byte[] generate(Class<?> superclass, List<Class<?>> interfaces, List<ProxyMethod> methods) {
+        return new ProxyClassGenerator().write(superclass, interfaces, methods);
+    }
+
+    private byte[] write(Class<?> superclass, List<Class<?>> interfaces, List<ProxyMethod> proxyMethods) {
+        String superName = internalName(superclass);
+        int thisClass = constantPool.classRef(proxyName);
+        int superClass = constantPool.classRef(superName);
+        int[] interfaceRefs = new int[interfaces.size() + 1];
+        interfaceRefs[0] = constantPool.classRef(internalName(InterceptedProxy.class));
+        for (int i = 0; i < interfaces.size(); i++) {
+            interfaceRefs[i + 1] = constantPool.classRef(internalName(interfaces.get(i)));
+        }
+        int targetName = constantPool.utf8(TARGET_FIELD);
+        int targetDescriptor = constantPool.utf8("Ljava/lang/Object;");
+        int methodsName = constantPool.utf8(METHODS_FIELD);
+        int methodsDescriptor = constantPool.utf8(METHODS_DESCRIPTOR);
+
+        writeObjectMethods();
+        for (ProxyMethod proxyMethod : proxyMethods) {
+            if (proxyMethod.interceptedIndex() < 0) {
+                writeForwardingMethod(proxyMethod);
+            } else {
+                writeInterceptedMethod(proxyMethod);
+            }
+        }
+
+        ByteWriter classFile = new ByteWriter();
+        classFile.u4(0xCAFEBABE).u2(0).u2(CLASS_VERSION);
+        classFile.u2(constantPool.count).bytes(constantPool.entries);
+        classFile.u2(ACC_PUBLIC | ACC_FINAL | ACC_SUPER).u2(thisClass).u2(superClass);
+        classFile.u2(interfaceRefs.length);
+        Arrays.stream(interfaceRefs).forEach(classFile::u2);
+        classFile.u2(2);
+        classFile.u2(ACC_PRIVATE).u2(targetName).u2(targetDescriptor).u2(0);
+        classFile.u2(ACC_PRIVATE).u2(methodsName).u2(methodsDescriptor).u2(0);
+        classFile.u2(methodCount).bytes(methods);
+        classFile.u2(0);
+        return classFile.toByteArray();
+    }
+
+    private void writeObjectMethods() {
+        ByteWriter getTarget = new ByteWriter();
+        getTarget.u1(Opcodes.ALOAD_0).u1(Opcodes.GETFIELD).u2(targetField()).u1(Opcodes.ARETURN);
+        writeMethod(ACC_PUBLIC | ACC_FINAL, "getInterceptedTarget", "()Ljava/lang/Object;", getTarget, 1, 1);
+
+        ByteWriter equals = new ByteWriter();
+        equals.u1(Opcodes.ALOAD_0).u1(Opcodes.GETFIELD).u2(targetField()).u1(Opcodes.ALOAD_1)
+                .u1(Opcodes.INVOKESTATIC).u2(constantPool.methodRef(INTERCEPTED_METHOD, "targetEquals", "(Ljava/lang/Object;Ljava/lang/Object;)Z"))
+                .u1(Opcodes.IRETURN);
+        writeMethod(ACC_PUBLIC | ACC_FINAL, "equals", "(Ljava/lang/Object;)Z", equals, 2, 2);
+
+        ByteWriter hashCode = new ByteWriter();
+        hashCode.u1(Opcodes.ALOAD_0).u1(Opcodes.GETFIELD).u2(targetField())
+                .u1(Opcodes.INVOKEVIRTUAL).u2(constantPool.methodRef(OBJECT, "hashCode", "()I"))
+                .u1(Opcodes.IRETURN);
+        writeMethod(ACC_PUBLIC | ACC_FINAL, "hashCode", "()I", hashCode, 1, 1);
+
+        ByteWriter toString = new ByteWriter();
+        toString.u1(Opcodes.ALOAD_0).u1(Opcodes.GETFIELD).u2(targetField())
+                .u1(Opcodes.INVOKEVIRTUAL).u2(constantPool.methodRef(OBJECT, "toString", "()Ljava/lang/String;"))
+                .u1(Opcodes.ARETURN);
+        writeMethod(ACC_PUBLIC | ACC_FINAL, "toString", "()Ljava/lang/String;", toString, 1, 1);
+    }
+
+    private void writeForwardingMethod(ProxyMethod proxyMethod) {
+        Method method = proxyMethod.method();
+        Class<?> owner = proxyMethod.owner();
+        String ownerName = internalName(owner);
+        String descriptor = descriptor(method);
+
+        ByteWriter code = new ByteWriter();
+        code.u1(Opcodes.ALOAD_0).u1(Opcodes.GETFIELD).u2(targetField());
+        code.u1(Opcodes.CHECKCAST).u2(constantPool.classRef(ownerName));
+        int slot = 1;
+        for (Class<?> parameterType : method.getParameterTypes()) {
+            load(code, parameterType, slot);
+            slot += slotSize(parameterType);
+        }
+        if (owner.isInterface()) {
+            code.u1(Opcodes.INVOKEINTERFACE).u2(constantPool.interfaceMethodRef(ownerName, method.getName(), descriptor))
+                    .u1(slot).u1(0);
+        } else {
+            code.u1(Opcodes.INVOKEVIRTUAL).u2(constantPool.methodRef(ownerName, method.getName(), descriptor));
+        }
+        code.u1(returnOpcode(method.getReturnType()));
+        writeMethod(ACC_PUBLIC | ACC_FINAL, method.getName(), descriptor, code, Math.max(slot, 2), slot);
+    }
+
+    private void writeInterceptedMethod(ProxyMethod proxyMethod) {
+        Method method = proxyMethod.method();
+        Class<?>[] parameterTypes = method.getParameterTypes();
+
+        ByteWriter code = new ByteWriter();
+        code.u1(Opcodes.ALOAD_0).u1(Opcodes.GETFIELD).u2(methodsField());
+        pushInt(code, proxyMethod.interceptedIndex());
+        code.u1(Opcodes.AALOAD);
+        code.u1(Opcodes.ALOAD_0).u1(Opcodes.GETFIELD).u2(targetField());
+        pushInt(code, parameterTypes.length);
+        code.u1(Opcodes.ANEWARRAY).u2(constantPool.classRef(OBJECT));
+        // interceptedMethod, target, array, array, index, argument
+        int maxStack = 3;
+        int slot = 1;
+        for (int i = 0; i < parameterTypes.length; i++) {
+            Class<?> parameterType = parameterTypes[i];
+            code.u1(Opcodes.DUP);
+            pushInt(code, i);
+            load(code, parameterType, slot);
+            if (parameterType.isPrimitive()) {
+                Class<?> wrapperType = MethodType.methodType(parameterType).wrap().returnType();
+                code.u1(Opcodes.INVOKESTATIC).u2(constantPool.methodRef(internalName(wrapperType), "valueOf",
+                        MethodType.methodType(wrapperType, parameterType).toMethodDescriptorString()));
+            }
+            code.u1(Opcodes.AASTORE);
+            slot += slotSize(parameterType);
+            maxStack = Math.max(maxStack, 5 + slotSize(parameterType));
+        }
+        code.u1(Opcodes.INVOKEVIRTUAL).u2(constantPool.methodRef(INTERCEPTED_METHOD, "invoke", INVOKE_DESCRIPTOR));
+
+        Class<?> returnType = method.getReturnType();
+        if (returnType == void.class) {
+            code.u1(Opcodes.POP);
+        } else if (returnType.isPrimitive()) {
+            Class<?> wrapperType = MethodType.methodType(returnType).wrap().returnType();
+            code.u1(Opcodes.CHECKCAST).u2(constantPool.classRef(internalName(wrapperType)));
+            code.u1(Opcodes.INVOKEVIRTUAL).u2(constantPool.methodRef(internalName(wrapperType), returnType.getName() + "Value",
+                    MethodType.methodType(returnType).toMethodDescriptorString()));
+        } else if (returnType != Object.class) {
+            code.u1(Opcodes.CHECKCAST).u2(constantPool.classRef(internalName(returnType)));
+        }
+        code.u1(returnOpcode(returnType));
+        writeMethod(ACC_PUBLIC | ACC_FINAL, method.getName(), descriptor(method), code,
+                Math.max(maxStack, slotSize(returnType)), slot);
+    }
+
+    private void writeMethod(int access, String name, String descriptor, ByteWriter code, int maxStack, int maxLocals) {
+        methods.u2(access).u2(constantPool.utf8(name)).u2(constantPool.utf8(descriptor)).u2(1);
+        methods.u2(constantPool.utf8("Code")).u4(12 + code.size());
+        methods.u2(maxStack).u2(maxLocals).u4(code.size()).bytes(code);
+        methods.u2(0).u2(0);
+        methodCount++;
+    }
+
+    private int targetField() {
+        return constantPool.fieldRef(proxyName, TARGET_FIELD, "Ljava/lang/Object;");
+    }
+
+    private int methodsField() {
+        return constantPool.fieldRef(proxyName, METHODS_FIELD, METHODS_DESCRIPTOR);
+    }
+
+    private void pushInt(ByteWriter code, int value) {
+        if (value <= 5) {
+            code.u1(Opcodes.ICONST_0 + value);
+        } else if (value <= Byte.MAX_VALUE) {
+            code.u1(Opcodes.BIPUSH).u1(value);
+        } else {
+            code.u1(Opcodes.SIPUSH).u2(value);
+        }
+    }
+
+    private static void load(ByteWriter code, Class<?> type, int slot) {
+        int opcode;
+        if (!type.isPrimitive()) {
+            opcode = Opcodes.ALOAD;
+        } else if (type == long.class) {
+            opcode = Opcodes.LLOAD;
+        } else if (type == float.class) {
+            opcode = Opcodes.FLOAD;
+        } else if (type == double.class) {
+            opcode = Opcodes.DLOAD;
+        } else {
+            opcode = Opcodes.ILOAD;
+        }
+        if (slot <= 0xFF) {
+            code.u1(opcode).u1(slot);
+        } else {
+            code.u1(Opcodes.WIDE).u1(opcode).u2(slot);
+        }
+    }
+
+    private static int returnOpcode(Class<?> type) {
+        if (type == void.class) {
+            return Opcodes.RETURN;
+        } else if (!type.isPrimitive()) {
+            return Opcodes.ARETURN;
+        } else if (type == long.class) {
+            return Opcodes.LRETURN;
+        } else if (type == float.class) {
+            return Opcodes.FRETURN;
+        } else if (type == double.class) {
+            return Opcodes.DRETURN;
+        }
+        return Opcodes.IRETURN;
+    }
+
+    private static int slotSize(Class<?> type) {
+        return type == long.class || type == double.class ? 2 : 1;
+    }
+
+    private static String descriptor(Method method) {
+        return MethodType.methodType(method.getReturnType(), method.getParameterTypes()).toMethodDescriptorString();
+    }
+
+    private static String internalName(Class<?> type) {
+        return type.isArray() ? type.descriptorString() : internalName(type.getName());
+    }
+
+    private static String internalName(String className) {
+        return className.replace('.', '/');
+    }
+
+    /**
+     * Method implemented by a proxy class.
+     *
+     * @param owner            class or interface the forwarded call is made on
+     * @param interceptedIndex index of the {@link InterceptedMethod} in the {@code methods} field,
+     *                         or {@code -1} if the method is forwarded to the target
+     */
+    record ProxyMethod(Method method, Class<?> owner, int interceptedIndex) {
+    }
+
+    private static final class Opcodes {
+        static final int ICONST_0 = 0x03;
+        static final int BIPUSH = 0x10;
+        static final int SIPUSH = 0x11;
+        static final int ILOAD = 0x15;
+        static final int LLOAD = 0x16;
+        static final int FLOAD = 0x17;
+        static final int DLOAD = 0x18;
+        static final int ALOAD = 0x19;
+        static final int ALOAD_0 = 0x2A;
+        static final int ALOAD_1 = 0x2B;
+        static final int AALOAD = 0x32;
+        static final int AASTORE = 0x53;
+        static final int POP = 0x57;
+        static final int DUP = 0x59;
+        static final int IRETURN = 0xAC;
+        static final int LRETURN = 0xAD;
+        static final int FRETURN = 0xAE;
+        static final int DRETURN = 0xAF;
+        static final int ARETURN = 0xB0;
+        static final int RETURN = 0xB1;
+        static final int GETFIELD = 0xB4;
+        static final int INVOKEVIRTUAL = 0xB6;
+        static final int INVOKESTATIC = 0xB8;
+        static final int INVOKEINTERFACE = 0xB9;
+        static final int ANEWARRAY = 0xBD;
+        static final int CHECKCAST = 0xC0;
+        static final int WIDE = 0xC4;
+    }
+
+    private static final class ConstantPool {
+        private final ByteWriter entries = new ByteWriter();
+        private final Map<String, Integer> indexes = new HashMap<>();
+        private int count = 1;
+
+        int utf8(String value) {
+            Integer index = indexes.get("U" + value);
+            if (index != null) {
+                return index;
+            }
+            entries.u1(1).utf8(value);
+            return add("U" + value);
+        }
+
+        int classRef(String internalName) {
+            Integer index = indexes.get("C" + internalName);
+            if (index != null) {
+                return index;
+            }
+            int name = utf8(internalName);
+            entries.u1(7).u2(name);
+            return add("C" + internalName);
+        }
+
+        int fieldRef(String owner, String name, String descriptor) {
+            return memberRef(9, owner, name, descriptor);
+        }
+
+        int methodRef(String owner, String name, String descriptor) {
+            return memberRef(10, owner, name, descriptor);
+        }
+
+        int interfaceMethodRef(String owner, String name, String descriptor) {
+            return memberRef(11, owner, name, descriptor);
+        }
+
+        private int memberRef(int tag, String owner, String name, String descriptor) {
+            String key = tag + owner + '.' + name + descriptor;
+            Integer index = indexes.get(key);
+            if (index != null) {
+                return index;
+            }
+            int ownerRef = classRef(owner);
+            int nameAndType = nameAndType(name, descriptor);
+            entries.u1(tag).u2(ownerRef).u2(nameAndType);
+            return add(key);
+        }
+
+        private int nameAndType(String name, String descriptor) {
+            String key = "N" + name + ':' + descriptor;
+            Integer index = indexes.get(key);
+            if (index != null) {
+                return index;
+            }
+            int nameRef = utf8(name);
+            int descriptorRef = utf8(descriptor);
+            entries.u1(12).u2(nameRef).u2(descriptorRef);
+            return add(key);
+        }
+
+        private int add(String key) {
+            if (count > 0xFFFF) {
+                throw new IllegalArgumentException("Proxy class exceeds the constant pool limit of 65535 entries");
+            }
+            indexes.put(key, count);
+            return count++;
+        }
+    }
+
+    private static final class ByteWriter {
+        private byte[] buffer = new byte[256];
+        private int size;
+
+        ByteWriter u1(int value) {
+            ensureCapacity(1);
+            buffer[size++] = (byte) value;
+            return this;
+        }
+
+        ByteWriter u2(int value) {
+            return u1(value >>> 8).u1(value);
+        }
+
+        ByteWriter u4(int value) {
+            return u2(value >>> 16).u2(value);
+        }
+
+        ByteWriter bytes(ByteWriter other) {
+            ensureCapacity(other.size);
+            System.arraycopy(other.buffer, 0, buffer, size, other.size);
+            size += other.size;
+            return this;
+        }
+
+        /**
+         * Writes the length and the modified UTF-8 form used by class files.
+         */
+        ByteWriter utf8(String value) {
+            ByteWriter encoded = new ByteWriter();
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c != 0 && c < 0x80) {
+                    encoded.u1(c);
+                } else if (c < 0x800) {
+                    encoded.u1(0xC0 | c >> 6).u1(0x80 | c & 0x3F);
+                } else {
+                    encoded.u1(0xE0 | c >> 12).u1(0x80 | c >> 6 & 0x3F).u1(0x80 | c & 0x3F);
+                }
+            }
+            return u2(encoded.size).bytes(encoded);
+        }
+
+        int size() {
+            return size;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, size);
+        }
+
+        private void ensureCapacity(int length) {
+            if (size + length > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + length));
+            }
+        }
+    }
+}
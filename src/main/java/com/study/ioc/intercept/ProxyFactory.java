@@ -0,0 +1,214 @@
+package com.study.ioc.intercept;
+
+import com.study.ioc.exception.BeanInstantiationException;
+import com.study.ioc.intercept.ProxyClassGenerator.ProxyMethod;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.VarHandle;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.*;
+
+/**
+ * Creates proxies that run interceptors around matching methods.
+ * <p>
+ * A proxy class is generated once per target class and defined as a hidden class. If the target class is public,
+ * not final, has a public no-arg constructor and no public final methods, the proxy extends it and overrides
+ * its public methods, so the proxy can be used wherever the target is. Otherwise the proxy implements the public
+ * interfaces of the target. Matching methods box their arguments and run the interceptor chain, other methods
+ * call the target directly.
+ * <p>
+ * Proxies are allocated without running a constructor, so constructors of the target class have no side effects
+ * on proxy creation. The inherited state of a subclass proxy stays uninitialized and is never used by public
+ * methods; non-public methods are not proxied and must not be called on a proxy.
+ */
+public class ProxyFactory {
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    private static final MethodHandle ALLOCATE_INSTANCE = findAllocateInstance();
+    private static final Set<String> OBJECT_METHODS = Set.of("equals(Ljava/lang/Object;)Z", "hashCode()I",
+            "toString()Ljava/lang/String;", "getInterceptedTarget()Ljava/lang/Object;");
+
+    private final MethodMatcher methodMatcher;
+    private final MethodInterceptor[] interceptors;
+    private final ClassValue<Optional<ProxyInstantiator>> proxyInstantiators = new ClassValue<>() {
+        @Override
+        protected Optional<ProxyInstantiator> computeValue(Class<?> targetClass) {
+            return createProxyInstantiator(targetClass);
+        }
+    };
+
+    public ProxyFactory(MethodMatcher methodMatcher, MethodInterceptor... interceptors) {
+        this.methodMatcher = methodMatcher;
+        this.interceptors = interceptors.clone();
+    }
+
+    /**
+     * Returns a proxy for the target, or the target itself if none of its proxied methods match.
+     */
+    public Object getProxy(Object target) {
+        Optional<ProxyInstantiator> proxyInstantiator = proxyInstantiators.get(target.getClass());
+        if (proxyInstantiator.isEmpty()) {
+            return target;
+        }
+        try {
+            return proxyInstantiator.get().newProxy(target);
+        } catch (Throwable e) {
+            throw new BeanInstantiationException("Can't create proxy of " + target.getClass().getName(), e);
+        }
+    }
+
+    private Optional<ProxyInstantiator> createProxyInstantiator(Class<?> targetClass) {
+        boolean extendsTarget = isExtendable(targetClass);
+        Class<?> superclass = extendsTarget ? targetClass : Object.class;
+        List<Class<?>> interfaces = new ArrayList<>();
+        Map<String, Method> methods = new LinkedHashMap<>();
+        Map<String, Class<?>> owners = new HashMap<>();
+        if (extendsTarget) {
+            for (Method method : targetClass.getMethods()) {
+                if (method.getDeclaringClass() != Object.class && !Modifier.isStatic(method.getModifiers())) {
+                    addMethod(method, targetClass, methods, owners);
+                }
+            }
+        } else {
+            Set<Class<?>> allInterfaces = new LinkedHashSet<>();
+            collectInterfaces(targetClass, allInterfaces);
+            allInterfaces.remove(InterceptedProxy.class);
+            for (Class<?> interfaceClass : allInterfaces) {
+                if (isAccessible(interfaceClass) && Arrays.stream(interfaceClass.getMethods()).allMatch(this::hasAccessibleTypes)) {
+                    interfaces.add(interfaceClass);
+                    Arrays.stream(interfaceClass.getMethods())
+                            .filter(method -> !Modifier.isStatic(method.getModifiers()))
+                            .forEach(method -> addMethod(method, interfaceClass, methods, owners));
+                }
+            }
+        }
+
+        List<ProxyMethod> proxyMethods = new ArrayList<>();
+        List<InterceptedMethod> interceptedMethods = new ArrayList<>();
+        methods.forEach((key, method) -> {
+            int interceptedIndex = -1;
+            if (methodMatcher.matches(method, targetClass)) {
+                interceptedIndex = interceptedMethods.size();
+                interceptedMethods.add(new InterceptedMethod(method, interceptors, toTargetInvoker(method)));
+            }
+            proxyMethods.add(new ProxyMethod(method, owners.get(key), interceptedIndex));
+        });
+        if (interceptedMethods.isEmpty()) {
+            return Optional.empty();
+        }
+
+        try {
+            byte[] classFile = ProxyClassGenerator.generate(superclass, interfaces, proxyMethods);
+            MethodHandles.Lookup proxyLookup = LOOKUP.defineHiddenClass(classFile, true);
+            Class<?> proxyClass = proxyLookup.lookupClass();
+            return Optional.of(new ProxyInstantiator(proxyClass,
+                    proxyLookup.findSetter(proxyClass, ProxyClassGenerator.TARGET_FIELD, Object.class)
+                            .asType(MethodType.methodType(void.class, Object.class, Object.class)),
+                    proxyLookup.findSetter(proxyClass, ProxyClassGenerator.METHODS_FIELD, InterceptedMethod[].class)
+                            .asType(MethodType.methodType(void.class, Object.class, InterceptedMethod[].class)),
+                    interceptedMethods.toArray(new InterceptedMethod[0])));
+        } catch (IllegalArgumentException | IllegalAccessException | NoSuchFieldException | LinkageError e) {
+            throw new BeanInstantiationException("Can't define proxy class for " + targetClass.getName(), e);
+        }
+    }
+
+    private void addMethod(Method method, Class<?> owner, Map<String, Method> methods, Map<String, Class<?>> owners) {
+        String key = method.getName() + MethodType.methodType(method.getReturnType(), method.getParameterTypes()).toMethodDescriptorString();
+        if (!OBJECT_METHODS.contains(key) && methods.putIfAbsent(key, method) == null) {
+            owners.put(key, owner);
+        }
+    }
+
+    /**
+     * A generated subclass must be able to call the constructor and to override every public method.
+     */
+    private boolean isExtendable(Class<?> targetClass) {
+        int modifiers = targetClass.getModifiers();
+        if (!Modifier.isPublic(modifiers) || Modifier.isFinal(modifiers) || Modifier.isAbstract(modifiers)
+                || targetClass.isSealed() || !isAccessible(targetClass)) {
+            return false;
+        }
+        try {
+            targetClass.getConstructor();
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+        return Arrays.stream(targetClass.getMethods())
+                .filter(method -> method.getDeclaringClass() != Object.class && !Modifier.isStatic(method.getModifiers()))
+                .allMatch(method -> !Modifier.isFinal(method.getModifiers()) && hasAccessibleTypes(method));
+    }
+
+    private boolean hasAccessibleTypes(Method method) {
+        return isAccessible(method.getReturnType()) && Arrays.stream(method.getParameterTypes()).allMatch(this::isAccessible);
+    }
+
+    /**
+     * Checks that the generated class, defined next to this one, can refer to the type.
+     */
+    private boolean isAccessible(Class<?> type) {
+        Class<?> elementType = type;
+        while (elementType.isArray()) {
+            elementType = elementType.getComponentType();
+        }
+        if (elementType.isPrimitive()) {
+            return true;
+        }
+        try {
+            LOOKUP.accessClass(elementType);
+            return Class.forName(elementType.getName(), false, ProxyFactory.class.getClassLoader()) == elementType;
+        } catch (IllegalAccessException | ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    private TargetInvoker toTargetInvoker(Method method) {
+        try {
+            return TargetInvokers.create(method);
+        } catch (IllegalAccessException e) {
+            throw new BeanInstantiationException("Can't create proxy dispatch for method " + method, e);
+        }
+    }
+
+    /**
+     * Finds {@code Unsafe.allocateInstance}, which creates an object without running any constructor,
+     * as serialization does.
+     */
+    private static MethodHandle findAllocateInstance() {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field unsafeField = unsafeClass.getDeclaredField("theUnsafe");
+            unsafeField.setAccessible(true);
+            return MethodHandles.publicLookup()
+                    .findVirtual(unsafeClass, "allocateInstance", MethodType.methodType(Object.class, Class.class))
+                    .bindTo(unsafeField.get(null));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private record ProxyInstantiator(Class<?> proxyClass, MethodHandle targetSetter, MethodHandle methodsSetter,
+                                     InterceptedMethod[] interceptedMethods) {
+
+        Object newProxy(Object target) throws Throwable {
+            Object proxy = (Object) ALLOCATE_INSTANCE.invokeExact(proxyClass);
+            targetSetter.invokeExact(proxy, target);
+            methodsSetter.invokeExact(proxy, interceptedMethods);
+            // publishes the fields as safely as final fields set in a constructor would
+            VarHandle.releaseFence();
+            return proxy;
+        }
+    }
+
+    private static void collectInterfaces(Class<?> clazz, Set<Class<?>> interfaces) {
+        for (Class<?> current = clazz; current != null; current = current.getSuperclass()) {
+            for (Class<?> interfaceClass : current.getInterfaces()) {
+                if (interfaces.add(interfaceClass)) {
+                    collectInterfaces(interfaceClass, interfaces);
+                }
+            }
+        }
+    }
+}
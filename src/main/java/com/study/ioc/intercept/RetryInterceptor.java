@@ -0,0 +1,32 @@
+package com.study.ioc.intercept;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Calls the method again when it throws an exception, up to {@code maxAttempts} calls in total.
+ */
+@Slf4j
+public class RetryInterceptor implements MethodInterceptor {
+    private final int maxAttempts;
+
+    public RetryInterceptor(int maxAttempts) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("Max attempts must be positive, but was " + maxAttempts);
+        }
+        this.maxAttempts = maxAttempts;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return invocation.proceed();
+            } catch (Exception e) {
+                if (attempt == maxAttempts) {
+                    throw e;
+                }
+                log.debug("Attempt {} of method {} failed, retry.", attempt, invocation.getMethod().getName(), e);
+            }
+        }
+    }
+}
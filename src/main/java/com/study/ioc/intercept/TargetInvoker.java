@@ -0,0 +1,7 @@
+package com.study.ioc.intercept;
+
+@FunctionalInterface
+interface TargetInvoker {
+
+    Object invoke(Object target, Object[] arguments) throws Throwable;
+}
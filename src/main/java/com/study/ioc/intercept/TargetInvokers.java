@@ -0,0 +1,118 @@
+package com.study.ioc.intercept;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+
+/**
+ * Creates {@link TargetInvoker}s. For methods with up to three parameters the call goes through a class generated
+ * by {@link LambdaMetafactory}, which the JIT compiles like a direct call. Other methods, and methods
+ * the generated class can't access, are called through a {@link MethodHandle}.
+ */
+@Slf4j
+final class TargetInvokers {
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    private static final MethodType SPREAD_TYPE = MethodType.methodType(Object.class, Object.class, Object[].class);
+    private static final String[] SAM_NAMES = {"apply", "accept"};
+    private static final Class<?>[][] FUNCTION_TYPES = {
+            {Function0.class, Function1.class, Function2.class, Function3.class},
+            {Consumer0.class, Consumer1.class, Consumer2.class, Consumer3.class}
+    };
+
+    private TargetInvokers() {
+    }
+
+    static TargetInvoker create(Method method) throws IllegalAccessException {
+        method.trySetAccessible();
+        MethodHandle handle = LOOKUP.unreflect(method);
+        if (method.getParameterCount() < FUNCTION_TYPES[0].length) {
+            try {
+                return createGenerated(method, handle);
+            } catch (Throwable e) {
+                log.debug("Use method handle dispatch for {}", method, e);
+            }
+        }
+        MethodHandle spreadHandle = handle.asSpreader(Object[].class, method.getParameterCount()).asType(SPREAD_TYPE);
+        return (target, arguments) -> (Object) spreadHandle.invokeExact(target, arguments);
+    }
+
+    private static TargetInvoker createGenerated(Method method, MethodHandle handle) throws Throwable {
+        int parameterCount = method.getParameterCount();
+        int kind = method.getReturnType() == void.class ? 1 : 0;
+        Class<?> functionType = FUNCTION_TYPES[kind][parameterCount];
+        MethodType samType = MethodType.genericMethodType(parameterCount + 1);
+        MethodType instantiatedType = handle.type().wrap();
+        if (kind == 1) {
+            samType = samType.changeReturnType(void.class);
+            instantiatedType = instantiatedType.changeReturnType(void.class);
+        }
+        Object function = LambdaMetafactory.metafactory(LOOKUP, SAM_NAMES[kind], MethodType.methodType(functionType),
+                samType, handle, instantiatedType).getTarget().invoke();
+
+        if (function instanceof Function0 f) {
+            return (target, arguments) -> f.apply(target);
+        } else if (function instanceof Function1 f) {
+            return (target, arguments) -> f.apply(target, arguments[0]);
+        } else if (function instanceof Function2 f) {
+            return (target, arguments) -> f.apply(target, arguments[0], arguments[1]);
+        } else if (function instanceof Function3 f) {
+            return (target, arguments) -> f.apply(target, arguments[0], arguments[1], arguments[2]);
+        } else if (function instanceof Consumer0 c) {
+            return (target, arguments) -> {
+                c.accept(target);
+                return null;
+            };
+        } else if (function instanceof Consumer1 c) {
+            return (target, arguments) -> {
+                c.accept(target, arguments[0]);
+                return null;
+            };
+        } else if (function instanceof Consumer2 c) {
+            return (target, arguments) -> {
+                c.accept(target, arguments[0], arguments[1]);
+                return null;
+            };
+        }
+        Consumer3 c = (Consumer3) function;
+        return (target, arguments) -> {
+            c.accept(target, arguments[0], arguments[1], arguments[2]);
+            return null;
+        };
+    }
+
+    private interface Function0 {
+        Object apply(Object target);
+    }
+
+    private interface Function1 {
+        Object apply(Object target, Object argument0);
+    }
+
+    private interface Function2 {
+        Object apply(Object target, Object argument0, Object argument1);
+    }
+
+    private interface Function3 {
+        Object apply(Object target, Object argument0, Object argument1, Object argument2);
+    }
+
+    private interface Consumer0 {
+        void accept(Object target);
+    }
+
+    private interface Consumer1 {
+        void accept(Object target, Object argument0);
+    }
+
+    private interface Consumer2 {
+        void accept(Object target, Object argument0, Object argument1);
+    }
+
+    private interface Consumer3 {
+        void accept(Object target, Object argument0, Object argument1, Object argument2);
+    }
+}
@@ -0,0 +1,18 @@
+package com.study.ioc.intercept;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+public class TimingInterceptor implements MethodInterceptor {
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        long startNanos = System.nanoTime();
+        try {
+            return invocation.proceed();
+        } finally {
+            log.debug("Method {}.{} took {} ns", invocation.getTarget().getClass().getSimpleName(),
+                    invocation.getMethod().getName(), System.nanoTime() - startNanos);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.study.ioc.placeholder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Looks up placeholder keys in property sources, in order. Every key is looked up once until the cache is cleared,
+ * so resolving many values costs one cache hit per placeholder instead of a walk over all sources.
+ * The reader clears it before each read, so changed properties are seen by the next read.
+ */
+public class PlaceholderResolver {
+    private final List<PropertySource> propertySources;
+    private final Map<String, Optional<String>> resolvedValues = new ConcurrentHashMap<>();
+
+    public PlaceholderResolver(List<PropertySource> propertySources) {
+        this.propertySources = List.copyOf(propertySources);
+    }
+
+    /**
+     * Creates a resolver that looks into system properties, then environment variables,
+     * then the given properties files.
+     */
+    public static PlaceholderResolver createDefault(String... propertyFiles) {
+        List<PropertySource> propertySources = new ArrayList<>();
+        propertySources.add(PropertySource.systemProperties());
+        propertySources.add(PropertySource.environment());
+        for (String propertyFile : propertyFiles) {
+            propertySources.add(PropertySource.fromLocation(propertyFile));
+        }
+        return new PlaceholderResolver(propertySources);
+    }
+
+    public String getProperty(String key) {
+        return resolvedValues.computeIfAbsent(key, this::findProperty).orElse(null);
+    }
+
+    /**
+     * Forgets the values looked up so far.
+     */
+    public void clearCache() {
+        resolvedValues.clear();
+    }
+
+    private Optional<String> findProperty(String key) {
+        for (PropertySource propertySource : propertySources) {
+            String value = propertySource.getProperty(key);
+            if (value != null) {
+                return Optional.of(value);
+            }
+        }
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,85 @@
+package com.study.ioc.placeholder;
+
+import com.study.ioc.exception.ParseContextException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Value parsed into literal parts and {@code ${key:default}} placeholders,
+ * so it can be resolved without parsing the string again.
+ */
+public final class PlaceholderTemplate {
+    private static final String PREFIX = "${";
+    private static final String SUFFIX = "}";
+    private static final char DEFAULT_SEPARATOR = ':';
+
+    private final String[] literals;
+    private final String[] keys;
+    private final String[] defaultValues;
+
+    private PlaceholderTemplate(String[] literals, String[] keys, String[] defaultValues) {
+        this.literals = literals;
+        this.keys = keys;
+        this.defaultValues = defaultValues;
+    }
+
+    public static boolean containsPlaceholder(String value) {
+        return value.contains(PREFIX);
+    }
+
+    public static PlaceholderTemplate parse(String value) {
+        List<String> literals = new ArrayList<>();
+        List<String> keys = new ArrayList<>();
+        List<String> defaultValues = new ArrayList<>();
+
+        int position = 0;
+        int start;
+        while ((start = value.indexOf(PREFIX, position)) != -1) {
+            int end = value.indexOf(SUFFIX, start + PREFIX.length());
+            if (end == -1) {
+                throw new ParseContextException("Unclosed placeholder in value: " + value);
+            }
+            literals.add(value.substring(position, start));
+            String placeholder = value.substring(start + PREFIX.length(), end);
+            int separator = placeholder.indexOf(DEFAULT_SEPARATOR);
+            String key = separator == -1 ? placeholder : placeholder.substring(0, separator);
+            if (key.isBlank()) {
+                throw new ParseContextException("Empty placeholder key in value: " + value);
+            }
+            keys.add(key);
+            defaultValues.add(separator == -1 ? null : placeholder.substring(separator + 1));
+            position = end + SUFFIX.length();
+        }
+        literals.add(value.substring(position));
+
+        return new PlaceholderTemplate(literals.toArray(new String[0]), keys.toArray(new String[0]),
+                defaultValues.toArray(new String[0]));
+    }
+
+    public String[] getKeys() {
+        return keys.clone();
+    }
+
+    public String resolve(PlaceholderResolver resolver) {
+        if (keys.length == 1 && literals[0].isEmpty() && literals[1].isEmpty()) {
+            return resolveKey(resolver, 0);
+        }
+        StringBuilder result = new StringBuilder(literals[0]);
+        for (int i = 0; i < keys.length; i++) {
+            result.append(resolveKey(resolver, i)).append(literals[i + 1]);
+        }
+        return result.toString();
+    }
+
+    private String resolveKey(PlaceholderResolver resolver, int index) {
+        String value = resolver.getProperty(keys[index]);
+        if (value != null) {
+            return value;
+        }
+        if (defaultValues[index] != null) {
+            return defaultValues[index];
+        }
+        throw new ParseContextException("Could not resolve placeholder '" + keys[index] + "'");
+    }
+}
@@ -0,0 +1,45 @@
+package com.study.ioc.placeholder;
+
+import com.study.ioc.exception.ParseContextException;
+import com.study.ioc.reader.resource.Resource;
+import com.study.ioc.reader.resource.ResourceLoader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+
+@FunctionalInterface
+public interface PropertySource {
+
+    /**
+     * Returns the value of the property, or null if this source doesn't define it.
+     */
+    String getProperty(String key);
+
+    static PropertySource systemProperties() {
+        return System::getProperty;
+    }
+
+    static PropertySource environment() {
+        return System::getenv;
+    }
+
+    static PropertySource fromProperties(Properties properties) {
+        return properties::getProperty;
+    }
+
+    /**
+     * Loads a properties file from a {@link ResourceLoader} location, e.g. {@code app.properties}
+     * on the classpath or {@code file:/etc/app.properties}.
+     */
+    static PropertySource fromLocation(String location) {
+        Resource resource = new ResourceLoader().getResource(location);
+        try (InputStream inputStream = resource.getInputStream()) {
+            Properties properties = new Properties();
+            properties.load(inputStream);
+            return fromProperties(properties);
+        } catch (IOException e) {
+            throw new ParseContextException("Can't load properties from " + resource.getDescription(), e);
+        }
+    }
+}
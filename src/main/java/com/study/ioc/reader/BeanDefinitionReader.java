@@ -6,4 +6,12 @@ import java.util.Map;
 
 public interface BeanDefinitionReader {
     Map<String, BeanDefinition> getBeanDefinition();
+
+    /**
+     * Checksum of the inputs the definitions are read from, or null if the reader can't provide one.
+     * Used to detect that a recorded context snapshot is outdated.
+     */
+    default String getChecksum() {
+        return null;
+    }
 }
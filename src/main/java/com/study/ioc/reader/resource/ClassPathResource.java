@@ -0,0 +1,42 @@
+package com.study.ioc.reader.resource;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Path;
+
+/**
+ * Classpath resource. Resources in directories are read as files, resources in jars are streamed from the jar.
+ */
+public class ClassPathResource implements Resource {
+    private final String path;
+    private final ClassLoader classLoader;
+
+    public ClassPathResource(String path, ClassLoader classLoader) {
+        this.path = path.startsWith("/") ? path.substring(1) : path;
+        this.classLoader = classLoader;
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        URL url = classLoader.getResource(path);
+        if (url == null) {
+            throw new FileNotFoundException(getDescription() + " doesn't exist");
+        }
+        if ("file".equals(url.getProtocol())) {
+            try {
+                return new FileSystemResource(Path.of(url.toURI())).getInputStream();
+            } catch (URISyntaxException e) {
+                throw new IOException("Invalid file URL " + url, e);
+            }
+        }
+        return new UrlResource(url).getInputStream();
+    }
+
+    @Override
+    public String getDescription() {
+        return "class path resource [" + path + "]";
+    }
+}
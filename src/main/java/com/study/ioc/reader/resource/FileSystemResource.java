@@ -0,0 +1,46 @@
+package com.study.ioc.reader.resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * File read through NIO. The file is opened once per stream; large files are memory-mapped,
+ * so their content isn't copied into heap buffers.
+ */
+public class FileSystemResource implements Resource {
+    static final long MAPPING_THRESHOLD = 256 * 1024;
+
+    private final Path path;
+
+    public FileSystemResource(Path path) {
+        this.path = path;
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            if (size >= MAPPING_THRESHOLD && size <= Integer.MAX_VALUE) {
+                // the mapping stays valid after the channel is closed
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+                channel.close();
+                return new ByteBufferInputStream(buffer);
+            }
+            return Channels.newInputStream(channel);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public String getDescription() {
+        return "file [" + path.toAbsolutePath() + "]";
+    }
+}
@@ -0,0 +1,14 @@
+package com.study.ioc.reader.resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface Resource {
+
+    /**
+     * Opens a new stream over the resource content. The caller is responsible for closing it.
+     */
+    InputStream getInputStream() throws IOException;
+
+    String getDescription();
+}
@@ -0,0 +1,56 @@
+package com.study.ioc.reader.resource;
+
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URL;
+import java.nio.file.Path;
+
+/**
+ * Resolves context locations. Supported prefixes are {@code classpath:}, {@code file:} and {@code jar:};
+ * locations without a prefix are looked up on the classpath.
+ */
+public class ResourceLoader {
+    public static final String CLASSPATH_PREFIX = "classpath:";
+    public static final String FILE_PREFIX = "file:";
+    public static final String JAR_PREFIX = "jar:";
+
+    private final ClassLoader classLoader;
+
+    public ResourceLoader() {
+        this(ResourceLoader.class.getClassLoader());
+    }
+
+    public ResourceLoader(ClassLoader classLoader) {
+        this.classLoader = classLoader;
+    }
+
+    public Resource getResource(String location) {
+        if (location.startsWith(CLASSPATH_PREFIX)) {
+            return new ClassPathResource(location.substring(CLASSPATH_PREFIX.length()), classLoader);
+        }
+        if (location.startsWith(FILE_PREFIX)) {
+            return new FileSystemResource(getFilePath(location));
+        }
+        if (location.startsWith(JAR_PREFIX)) {
+            try {
+                return new UrlResource(new URL(location));
+            } catch (MalformedURLException e) {
+                throw new IllegalArgumentException("Invalid jar location: " + location, e);
+            }
+        }
+        return new ClassPathResource(location, classLoader);
+    }
+
+    /**
+     * Reads a {@code file:} location as a URI, so percent-encoded characters and drive letters are decoded.
+     * Locations that aren't absolute file URIs, e.g. {@code file:config/context.xml} or paths with unencoded
+     * spaces, are taken as plain paths.
+     */
+    private Path getFilePath(String location) {
+        try {
+            return Path.of(URI.create(location));
+        } catch (IllegalArgumentException e) {
+            return Path.of(location.substring(FILE_PREFIX.length()));
+        }
+    }
+}
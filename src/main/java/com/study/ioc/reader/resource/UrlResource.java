@@ -0,0 +1,29 @@
+package com.study.ioc.reader.resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLConnection;
+
+/**
+ * Resource behind a URL, e.g. a {@code jar:} entry. The entry is streamed directly from the archive.
+ */
+public class UrlResource implements Resource {
+    private final URL url;
+
+    public UrlResource(URL url) {
+        this.url = url;
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        URLConnection connection = url.openConnection();
+        connection.setUseCaches(false);
+        return connection.getInputStream();
+    }
+
+    @Override
+    public String getDescription() {
+        return "URL [" + url + "]";
+    }
+}
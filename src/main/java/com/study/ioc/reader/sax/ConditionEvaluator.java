@@ -0,0 +1,73 @@
+package com.study.ioc.reader.sax;
+
+import com.study.ioc.placeholder.PlaceholderResolver;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Evaluates {@code profile} and {@code condition} attributes of {@code <beans>} and {@code <bean>} elements.
+ * <p>
+ * A profile attribute is a comma-separated list of profiles; the element is active if one of them is active,
+ * or, for {@code !name}, not active. Active profiles are read from the {@code ioc.profiles.active} property;
+ * if it is not set, the {@code default} profile is active.
+ * <p>
+ * A condition is {@code key}, {@code !key}, {@code key=value} or {@code key!=value}. A bare key holds
+ * if the property is set to anything other than {@code false}.
+ */
+class ConditionEvaluator {
+    static final String ACTIVE_PROFILES_PROPERTY = "ioc.profiles.active";
+    static final String DEFAULT_PROFILE = "default";
+
+    private final PlaceholderResolver placeholderResolver;
+    private final Set<String> activeProfiles;
+
+    ConditionEvaluator(PlaceholderResolver placeholderResolver) {
+        this.placeholderResolver = placeholderResolver;
+        String activeProfilesValue = placeholderResolver.getProperty(ACTIVE_PROFILES_PROPERTY);
+        this.activeProfiles = activeProfilesValue == null || activeProfilesValue.isBlank()
+                ? Set.of(DEFAULT_PROFILE)
+                : Arrays.stream(activeProfilesValue.split(","))
+                .map(String::trim)
+                .filter(profile -> !profile.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    boolean matches(String profile, String condition) {
+        return (profile == null || matchesProfile(profile)) && (condition == null || matchesCondition(condition));
+    }
+
+    private boolean matchesProfile(String profile) {
+        for (String expression : profile.split(",")) {
+            String name = expression.trim();
+            if (name.startsWith("!") ? !activeProfiles.contains(name.substring(1).trim()) : activeProfiles.contains(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean matchesCondition(String condition) {
+        String expression = condition.trim();
+        int notEquals = expression.indexOf("!=");
+        if (notEquals != -1) {
+            String value = placeholderResolver.getProperty(expression.substring(0, notEquals).trim());
+            return !expression.substring(notEquals + 2).trim().equals(value);
+        }
+        int equals = expression.indexOf('=');
+        if (equals != -1) {
+            String value = placeholderResolver.getProperty(expression.substring(0, equals).trim());
+            return expression.substring(equals + 1).trim().equals(value);
+        }
+        if (expression.startsWith("!")) {
+            return !isEnabled(expression.substring(1).trim());
+        }
+        return isEnabled(expression);
+    }
+
+    private boolean isEnabled(String key) {
+        String value = placeholderResolver.getProperty(key);
+        return value != null && !value.equalsIgnoreCase("false");
+    }
+}
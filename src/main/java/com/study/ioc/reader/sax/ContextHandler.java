@@ -1,29 +1,74 @@
 package com.study.ioc.reader.sax;
 
 import com.study.ioc.entity.BeanDefinition;
+import com.study.ioc.entity.CollectionDependency;
 import com.study.ioc.exception.ParseContextException;
+import com.study.ioc.placeholder.PlaceholderResolver;
+import com.study.ioc.placeholder.PlaceholderTemplate;
 import org.xml.sax.Attributes;
 import org.xml.sax.helpers.DefaultHandler;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
 public class ContextHandler extends DefaultHandler {
 
+    private final ConditionEvaluator conditionEvaluator;
     private Map<String, BeanDefinition> beanDefinitions;
     private BeanDefinition beanDefinition;
     private Map<String, String> valueDependencies;
     private Map<String, String> refDependencies;
+    private Map<String, CollectionDependency> collectionDependencies;
+    private Map<String, Map<String, PlaceholderTemplate>> placeholderValues;
+    private Map<String, Map<String, List<PlaceholderTemplate>>> placeholderElements;
+    private Map<String, PlaceholderTemplate> templates;
 
     private boolean bBean;
+    private int depth;
+    private int skippedDepth;
+
+    private String collectionPropertyName;
+    private CollectionDependency.Kind collectionKind;
+    private String collectionElementType;
+    private List<CollectionDependency.Element> collectionElements;
+    private List<PlaceholderTemplate> collectionElementTemplates;
+    private StringBuilder text;
+
+    public ContextHandler() {
+        this(PlaceholderResolver.createDefault());
+    }
+
+    /**
+     * @param placeholderResolver source of active profiles and of properties checked by conditions
+     */
+    public ContextHandler(PlaceholderResolver placeholderResolver) {
+        this.conditionEvaluator = new ConditionEvaluator(placeholderResolver);
+    }
 
     @Override
     public void startDocument() {
-        beanDefinitions = new HashMap<>();
+        beanDefinitions = new LinkedHashMap<>();
+        placeholderValues = new HashMap<>();
+        placeholderElements = new HashMap<>();
+        templates = new HashMap<>();
     }
 
     @Override
     public void startElement(String uri, String localName, String qName, Attributes attributes) {
+        depth++;
+        if (skippedDepth != 0) {
+            return;
+        }
+        if ((qName.equalsIgnoreCase("beans") || qName.equalsIgnoreCase("bean"))
+                && !conditionEvaluator.matches(attributes.getValue("profile"), attributes.getValue("condition"))) {
+            skippedDepth = depth;
+            return;
+        }
         if (qName.equalsIgnoreCase("bean")) {
             bBean = true;
             String id = attributes.getValue("id");
@@ -31,12 +76,20 @@ public class ContextHandler extends DefaultHandler {
                 throw new ParseContextException("No specified id for bean");
             }
             String clazzName = attributes.getValue("class");
-            if (clazzName == null) {
+            String factoryBean = attributes.getValue("factory-bean");
+            String factoryMethod = attributes.getValue("factory-method");
+            if (clazzName == null && factoryBean == null) {
                 throw new ParseContextException("No specified class for bean");
             }
+            if (factoryBean != null && factoryMethod == null) {
+                throw new ParseContextException("No specified factory-method for bean: " + id);
+            }
             beanDefinition = new BeanDefinition(id, clazzName);
+            beanDefinition.setFactoryBean(factoryBean);
+            beanDefinition.setFactoryMethod(factoryMethod);
             valueDependencies = new HashMap<>();
             refDependencies = new HashMap<>();
+            collectionDependencies = new HashMap<>();
         } else if (qName.equalsIgnoreCase("property")) {
             if (!bBean) {
                 throw new ParseContextException("No specified bean for property");
@@ -49,10 +102,50 @@ public class ContextHandler extends DefaultHandler {
             String propertyRef = attributes.getValue("ref");
             if (propertyValue != null) {
                 valueDependencies.put(propertyName, propertyValue);
+                PlaceholderTemplate template = getTemplate(propertyValue);
+                if (template != null) {
+                    placeholderValues.computeIfAbsent(beanDefinition.getId(), id -> new HashMap<>())
+                            .put(propertyName, template);
+                }
             }
             if (propertyRef != null) {
                 refDependencies.put(propertyName, propertyRef);
             }
+            if (propertyValue == null && propertyRef == null) {
+                collectionPropertyName = propertyName;
+            }
+        } else if (isCollection(qName)) {
+            if (collectionPropertyName == null) {
+                throw new ParseContextException("No specified property for " + qName);
+            }
+            collectionKind = CollectionDependency.Kind.valueOf(qName.toUpperCase());
+            collectionElementType = attributes.getValue("type");
+            collectionElements = new ArrayList<>();
+            collectionElementTemplates = new ArrayList<>();
+        } else if (qName.equalsIgnoreCase("ref")) {
+            checkInsideListOrSet(qName);
+            String ref = attributes.getValue("bean");
+            if (ref == null) {
+                throw new ParseContextException("No specified bean for ref");
+            }
+            addCollectionElement(new CollectionDependency.Element(null, null, ref));
+        } else if (qName.equalsIgnoreCase("value")) {
+            checkInsideListOrSet(qName);
+            text = new StringBuilder();
+        } else if (qName.equalsIgnoreCase("entry")) {
+            if (collectionKind != CollectionDependency.Kind.MAP) {
+                throw new ParseContextException("No specified map for entry");
+            }
+            String key = attributes.getValue("key");
+            if (key == null) {
+                throw new ParseContextException("No specified key for entry");
+            }
+            String value = attributes.getValue("value");
+            String ref = attributes.getValue("ref");
+            if (value == null && ref == null) {
+                throw new ParseContextException("No specified value or ref for entry: " + key);
+            }
+            addCollectionElement(new CollectionDependency.Element(key, value, ref));
         }
 
     }
@@ -60,17 +153,85 @@ public class ContextHandler extends DefaultHandler {
     @Override
     public void endElement(String uri,
                            String localName, String qName) {
+        int elementDepth = depth--;
+        if (skippedDepth != 0) {
+            if (skippedDepth == elementDepth) {
+                skippedDepth = 0;
+            }
+            return;
+        }
         if (qName.equalsIgnoreCase("bean")) {
             bBean = false;
             beanDefinition.setValueDependencies(valueDependencies);
             beanDefinition.setRefDependencies(refDependencies);
+            beanDefinition.setCollectionDependencies(collectionDependencies);
             beanDefinitions.put(beanDefinition.getId(), beanDefinition);
+        } else if (qName.equalsIgnoreCase("property")) {
+            collectionPropertyName = null;
+        } else if (isCollection(qName)) {
+            collectionDependencies.put(collectionPropertyName,
+                    new CollectionDependency(collectionKind, collectionElementType, List.copyOf(collectionElements)));
+            if (collectionElementTemplates.stream().anyMatch(Objects::nonNull)) {
+                placeholderElements.computeIfAbsent(beanDefinition.getId(), id -> new HashMap<>())
+                        .put(collectionPropertyName, Collections.unmodifiableList(collectionElementTemplates));
+            }
+            collectionKind = null;
+            collectionElements = null;
+            collectionElementTemplates = null;
+        } else if (qName.equalsIgnoreCase("value") && text != null) {
+            addCollectionElement(new CollectionDependency.Element(null, text.toString().trim(), null));
+            text = null;
         }
     }
 
+    @Override
+    public void characters(char[] ch, int start, int length) {
+        if (text != null && skippedDepth == 0) {
+            text.append(ch, start, length);
+        }
+    }
+
+    private boolean isCollection(String qName) {
+        return qName.equalsIgnoreCase("list") || qName.equalsIgnoreCase("set") || qName.equalsIgnoreCase("map");
+    }
+
+    private void checkInsideListOrSet(String qName) {
+        if (collectionElements == null || collectionKind == CollectionDependency.Kind.MAP) {
+            throw new ParseContextException("No specified list or set for " + qName);
+        }
+    }
+
+    private void addCollectionElement(CollectionDependency.Element element) {
+        collectionElements.add(element);
+        collectionElementTemplates.add(element.getValue() == null ? null : getTemplate(element.getValue()));
+    }
+
+    private PlaceholderTemplate getTemplate(String value) {
+        if (!PlaceholderTemplate.containsPlaceholder(value)) {
+            return null;
+        }
+        return templates.computeIfAbsent(value, PlaceholderTemplate::parse);
+    }
+
     public Map<String, BeanDefinition> getBeanDefinitions() {
         return beanDefinitions;
     }
 
+    /**
+     * Returns parsed templates of values containing placeholders, by bean id and property name.
+     * Only beans listed here need placeholder resolution.
+     */
+    public Map<String, Map<String, PlaceholderTemplate>> getPlaceholderValues() {
+        return placeholderValues;
+    }
+
+    /**
+     * Returns parsed templates of collection element values containing placeholders, by bean id and property name.
+     * Each list has one entry per element of the collection, {@code null} for elements without placeholders.
+     */
+    public Map<String, Map<String, List<PlaceholderTemplate>>> getPlaceholderElements() {
+        return placeholderElements;
+    }
+
 
 }
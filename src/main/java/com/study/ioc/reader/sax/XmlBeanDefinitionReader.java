@@ -1,49 +1,131 @@
 package com.study.ioc.reader.sax;
 
 import com.study.ioc.entity.BeanDefinition;
+import com.study.ioc.entity.CollectionDependency;
 import com.study.ioc.exception.ParseContextException;
+import com.study.ioc.placeholder.PlaceholderResolver;
+import com.study.ioc.placeholder.PlaceholderTemplate;
 import com.study.ioc.reader.BeanDefinitionReader;
+import com.study.ioc.reader.resource.ResourceLoader;
 import org.xml.sax.SAXException;
 
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.parsers.SAXParser;
 import javax.xml.parsers.SAXParserFactory;
-import java.io.BufferedInputStream;
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.HashMap;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 
 public class XmlBeanDefinitionReader implements BeanDefinitionReader {
     private String[] paths;
+    private PlaceholderResolver placeholderResolver;
+    private ResourceLoader resourceLoader = new ResourceLoader();
 
     public XmlBeanDefinitionReader(String... paths) {
+        this(PlaceholderResolver.createDefault(), paths);
+    }
+
+    public XmlBeanDefinitionReader(PlaceholderResolver placeholderResolver, String... paths) {
+        this.placeholderResolver = placeholderResolver;
         this.paths = paths;
     }
 
     @Override
     public Map<String, BeanDefinition> getBeanDefinition() {
-        Map<String, BeanDefinition> beanDefinitionMap = new HashMap<>();
+        Map<String, BeanDefinition> beanDefinitionMap = new LinkedHashMap<>();
+        placeholderResolver.clearCache();
         for (String path : paths) {
-            ClassLoader classLoader = getClass().getClassLoader();
-            try (InputStream inputStream = new BufferedInputStream(new FileInputStream(classLoader.getResource(path).getFile()))) {
+            try (InputStream inputStream = resourceLoader.getResource(path).getInputStream()) {
                 beanDefinitionMap.putAll(getBeanDefinitionMap(inputStream));
             } catch (IOException | ParserConfigurationException | SAXException e) {
-                throw new ParseContextException("Context parse failed for " + path);
+                throw new ParseContextException("Context parse failed for " + path, e);
             }
         }
         return beanDefinitionMap;
     }
 
+    /**
+     * Hashes the parsed definitions, with conditions and profiles applied and placeholders resolved, so a changed
+     * property invalidates a recorded snapshot as well, while comments and formatting of the files don't.
+     */
+    @Override
+    public String getChecksum() {
+        MessageDigest digest = getDigest();
+        getBeanDefinition().values().forEach(beanDefinition -> updateWithDefinition(digest, beanDefinition));
+        return HexFormat.of().formatHex(digest.digest());
+    }
 
     Map<String, BeanDefinition> getBeanDefinitionMap(InputStream inputStream) throws ParserConfigurationException, SAXException, IOException {
         SAXParserFactory saxParserFactory = SAXParserFactory.newInstance();
         SAXParser saxParser = saxParserFactory.newSAXParser();
-        ContextHandler handler = new ContextHandler();
+        ContextHandler handler = new ContextHandler(placeholderResolver);
         saxParser.parse(inputStream, handler);
-        return handler.getBeanDefinitions();
+        Map<String, BeanDefinition> beanDefinitions = handler.getBeanDefinitions();
+        resolvePlaceholders(beanDefinitions, handler.getPlaceholderValues());
+        resolveElementPlaceholders(beanDefinitions, handler.getPlaceholderElements());
+        return beanDefinitions;
+    }
+
+    void resolvePlaceholders(Map<String, BeanDefinition> beanDefinitions,
+                             Map<String, Map<String, PlaceholderTemplate>> placeholderValues) {
+        placeholderValues.forEach((beanId, templates) -> {
+            Map<String, String> valueDependencies = beanDefinitions.get(beanId).getValueDependencies();
+            templates.forEach((propertyName, template) ->
+                    valueDependencies.put(propertyName, template.resolve(placeholderResolver)));
+        });
+    }
+
+    void resolveElementPlaceholders(Map<String, BeanDefinition> beanDefinitions,
+                                    Map<String, Map<String, List<PlaceholderTemplate>>> placeholderElements) {
+        placeholderElements.forEach((beanId, templatesByProperty) -> {
+            Map<String, CollectionDependency> collectionDependencies = beanDefinitions.get(beanId).getCollectionDependencies();
+            templatesByProperty.forEach((propertyName, templates) -> {
+                CollectionDependency dependency = collectionDependencies.get(propertyName);
+                List<CollectionDependency.Element> elements = new ArrayList<>(dependency.getElements());
+                for (int i = 0; i < elements.size(); i++) {
+                    PlaceholderTemplate template = templates.get(i);
+                    if (template != null) {
+                        CollectionDependency.Element element = elements.get(i);
+                        elements.set(i, new CollectionDependency.Element(element.getKey(),
+                                template.resolve(placeholderResolver), element.getRef()));
+                    }
+                }
+                collectionDependencies.put(propertyName, new CollectionDependency(dependency.getKind(),
+                        dependency.getElementType(), List.copyOf(elements)));
+            });
+        });
     }
 
+    private void updateWithDefinition(MessageDigest digest, BeanDefinition beanDefinition) {
+        update(digest, beanDefinition.getId(), beanDefinition.getClassName(),
+                beanDefinition.getFactoryBean(), beanDefinition.getFactoryMethod());
+        new TreeMap<>(beanDefinition.getValueDependencies()).forEach((name, value) -> update(digest, "value", name, value));
+        new TreeMap<>(beanDefinition.getRefDependencies()).forEach((name, ref) -> update(digest, "ref", name, ref));
+        new TreeMap<>(beanDefinition.getCollectionDependencies()).forEach((name, dependency) -> {
+            update(digest, "collection", name, dependency.getKind().name(), dependency.getElementType());
+            dependency.getElements().forEach(element -> update(digest, element.getKey(), element.getValue(), element.getRef()));
+        });
+    }
 
+    private void update(MessageDigest digest, String... values) {
+        for (String value : values) {
+            digest.update((value == null ? "-;" : value.length() + ":" + value + ";").getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private MessageDigest getDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported", e);
+        }
+    }
 }
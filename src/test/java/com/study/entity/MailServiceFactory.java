@@ -0,0 +1,21 @@
+package com.study.entity;
+
+import lombok.Setter;
+
+@Setter
+public class MailServiceFactory {
+    private String protocol;
+    private MailService defaults;
+
+    public static MailService createDefault() {
+        return MailService.builder().protocol("SMTP").port(25).build();
+    }
+
+    public MailService create() {
+        return MailService.builder().protocol(protocol).port(587).build();
+    }
+
+    public MailService createFromDefaults() {
+        return MailService.builder().protocol(defaults.getProtocol()).port(defaults.getPort()).build();
+    }
+}
@@ -0,0 +1,20 @@
+package com.study.entity;
+
+import com.study.ioc.factory.FactoryBean;
+import lombok.Getter;
+
+@Getter
+public class MailServiceFactoryBean implements FactoryBean<MailService> {
+    private int objectCount;
+
+    @Override
+    public MailService getObject() {
+        objectCount++;
+        return new MailService();
+    }
+
+    @Override
+    public Class<?> getObjectType() {
+        return MailService.class;
+    }
+}
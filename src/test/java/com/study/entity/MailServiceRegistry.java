@@ -0,0 +1,24 @@
+package com.study.entity;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Getter
+@Setter
+public class MailServiceRegistry {
+    private List<IMailService> mailServices;
+    private IMailService[] allMailServices;
+    private Set<String> protocols;
+    private Map<String, Object> mailServicesById;
+    private int[] ports;
+    private List<Integer> defaultPorts;
+    private Map<Integer, Boolean> secureByPort;
+    private List<Double> weights;
+    private float[] ratios;
+    private Set<Character> separators;
+    private Map<Integer, IMailService> mailServicesByPort;
+}
@@ -0,0 +1,75 @@
+package com.study.ioc.benchmark;
+
+import com.study.entity.MailService;
+import com.study.ioc.context.impl.GenericApplicationContext;
+import com.study.ioc.context.metrics.LongAdderBeanLookupMetrics;
+import com.study.ioc.context.metrics.NoOpBeanLookupMetrics;
+import com.study.ioc.entity.BeanDefinition;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@code getBean} with disabled and enabled lookup metrics.
+ * The difference between the two score columns is the cost of counting.
+ * Run through {@link #main(String[])} with the test classpath.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BeanLookupMetricsBenchmark {
+
+    private GenericApplicationContext noOpContext;
+    private GenericApplicationContext countingContext;
+
+    @Setup
+    public void setUp() {
+        noOpContext = new GenericApplicationContext(null, this::createDefinitions, null, NoOpBeanLookupMetrics.INSTANCE);
+        countingContext = new GenericApplicationContext(null, this::createDefinitions, null, new LongAdderBeanLookupMetrics());
+    }
+
+    @Benchmark
+    public Object getBeanByIdNoOpMetrics() {
+        return noOpContext.getBean("mailService");
+    }
+
+    @Benchmark
+    public Object getBeanByIdLongAdderMetrics() {
+        return countingContext.getBean("mailService");
+    }
+
+    @Benchmark
+    public Object getBeanByTypeNoOpMetrics() {
+        return noOpContext.getBean(MailService.class);
+    }
+
+    @Benchmark
+    public Object getBeanByTypeLongAdderMetrics() {
+        return countingContext.getBean(MailService.class);
+    }
+
+    private Map<String, BeanDefinition> createDefinitions() {
+        Map<String, BeanDefinition> beanDefinitions = new HashMap<>();
+        beanDefinitions.put("mailService", BeanDefinition.builder()
+                .id("mailService")
+                .className("com.study.entity.MailService")
+                .valueDependencies(Map.of("port", "995"))
+                .refDependencies(Map.of())
+                .build());
+        return beanDefinitions;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(BeanLookupMetricsBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,160 @@
+package com.study.ioc.benchmark;
+
+import com.study.ioc.cds.CdsArchiveTool;
+import com.study.ioc.cds.ContextBootstrap;
+import com.study.ioc.context.impl.GenericApplicationContext;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Measures the time to launch a JVM that starts a {@link GenericApplicationContext} through {@link ContextBootstrap},
+ * with and without an AppCDS archive created by {@link CdsArchiveTool}. Each synthetic context has one generated
+ * class per bean, with value properties and a reference to the previous bean.
+ * Run through {@link #main(String[])} with the test classpath.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ContextStartupBenchmark {
+
+    @Param({"1000", "10000"})
+    private int beanCount;
+
+    @Param({"false", "true"})
+    private boolean archive;
+
+    private Path workspace;
+    private List<String> command;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        workspace = Files.createTempDirectory("ioc-startup-benchmark");
+        Path contextFile = createContext(workspace);
+        String classPath = createClassPath(workspace);
+        String location = contextFile.toUri().toString();
+
+        command = new ArrayList<>(List.of(Path.of(System.getProperty("java.home"), "bin", "java").toString()));
+        if (archive) {
+            CdsArchiveTool tool = new CdsArchiveTool(classPath);
+            Path classList = workspace.resolve("ioc.classlist");
+            Path archiveFile = workspace.resolve("ioc.jsa");
+            tool.recordClassList(classList, List.of(location));
+            tool.createArchive(classList, archiveFile);
+            command.add("-XX:SharedArchiveFile=" + archiveFile);
+        }
+        command.addAll(List.of("-cp", classPath, ContextBootstrap.class.getName(), location));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(workspace)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Benchmark
+    public void startContext() throws IOException, InterruptedException {
+        int exitCode = new ProcessBuilder(command)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .redirectError(ProcessBuilder.Redirect.DISCARD)
+                .start()
+                .waitFor();
+        if (exitCode != 0) {
+            throw new IllegalStateException("Context startup failed with exit code " + exitCode);
+        }
+    }
+
+    private Path createContext(Path workspace) throws IOException {
+        Path sources = Files.createDirectories(workspace.resolve("src/com/study/generated"));
+        StringBuilder context = new StringBuilder("<beans>\n");
+        for (int i = 0; i < beanCount; i++) {
+            Files.writeString(sources.resolve("Bean" + i + ".java"), "package com.study.generated;\n" +
+                    "public class Bean" + i + " {\n" +
+                    "    private int port;\n" +
+                    "    private String name;\n" +
+                    "    private Object previous;\n" +
+                    "    public void setPort(int port) { this.port = port; }\n" +
+                    "    public void setName(String name) { this.name = name; }\n" +
+                    "    public void setPrevious(Object previous) { this.previous = previous; }\n" +
+                    "}\n");
+            context.append("    <bean id=\"bean").append(i).append("\" class=\"com.study.generated.Bean").append(i).append("\">\n")
+                    .append("        <property name=\"port\" value=\"").append(i).append("\"/>\n")
+                    .append("        <property name=\"name\" value=\"bean").append(i).append("\"/>\n");
+            if (i > 0) {
+                context.append("        <property name=\"previous\" ref=\"bean").append(i - 1).append("\"/>\n");
+            }
+            context.append("    </bean>\n");
+        }
+        context.append("</beans>\n");
+        return Files.writeString(workspace.resolve("context.xml"), context);
+    }
+
+    /**
+     * Compiles the generated classes and packs them together with the container into one jar,
+     * as CDS archives classes from jar files only. Logging jars are taken from the current class path.
+     */
+    private String createClassPath(Path workspace) throws Exception {
+        Path classes = Files.createDirectories(workspace.resolve("classes"));
+        List<String> arguments = new ArrayList<>(List.of("-d", classes.toString()));
+        try (Stream<Path> sources = Files.list(workspace.resolve("src/com/study/generated"))) {
+            sources.map(Path::toString).forEach(arguments::add);
+        }
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        if (compiler.run(null, null, null, arguments.toArray(new String[0])) != 0) {
+            throw new IllegalStateException("Compilation of generated beans failed");
+        }
+
+        Path jar = workspace.resolve("app.jar");
+        Path containerClasses = Path.of(GenericApplicationContext.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+        try (JarOutputStream jarOutputStream = new JarOutputStream(Files.newOutputStream(jar))) {
+            addToJar(jarOutputStream, containerClasses);
+            addToJar(jarOutputStream, classes);
+        }
+
+        String loggingJars = Arrays.stream(System.getProperty("java.class.path").split(File.pathSeparator))
+                .filter(entry -> entry.endsWith(".jar") && (entry.contains("logback") || entry.contains("slf4j")))
+                .collect(Collectors.joining(File.pathSeparator));
+        return jar + File.pathSeparator + loggingJars;
+    }
+
+    private void addToJar(JarOutputStream jarOutputStream, Path root) throws IOException {
+        List<Path> files;
+        try (Stream<Path> paths = Files.walk(root)) {
+            files = paths.filter(Files::isRegularFile).toList();
+        }
+        for (Path file : files) {
+            jarOutputStream.putNextEntry(new JarEntry(root.relativize(file).toString().replace(File.separatorChar, '/')));
+            Files.copy(file, jarOutputStream);
+            jarOutputStream.closeEntry();
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ContextStartupBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,96 @@
+package com.study.ioc.benchmark;
+
+import com.study.entity.IMailService;
+import com.study.entity.User;
+import com.study.ioc.intercept.MethodInvocation;
+import com.study.ioc.intercept.MethodMatcher;
+import com.study.ioc.intercept.ProxyFactory;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares an {@link IMailService} call made directly, through a {@link ProxyFactory} proxy with and
+ * without an interceptor on the called method, and through a hand-written reflective JDK proxy
+ * that doesn't intercept anything.
+ * Run through {@link #main(String[])} with the test classpath.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProxyBenchmark {
+
+    private final User user = new User();
+    private IMailService direct;
+    private IMailService interceptedProxy;
+    private IMailService forwardingProxy;
+    private IMailService reflectiveProxy;
+
+    @Setup
+    public void setUp() {
+        direct = new CountingMailService();
+        interceptedProxy = (IMailService) new ProxyFactory(MethodMatcher.named("sendEmail"), MethodInvocation::proceed)
+                .getProxy(new CountingMailService());
+        forwardingProxy = (IMailService) new ProxyFactory(MethodMatcher.named("run"), MethodInvocation::proceed)
+                .getProxy(new CountingMailService());
+        IMailService reflectiveTarget = new CountingMailService();
+        reflectiveProxy = (IMailService) Proxy.newProxyInstance(IMailService.class.getClassLoader(),
+                new Class<?>[]{IMailService.class}, (proxy, method, args) -> method.invoke(reflectiveTarget, args));
+    }
+
+    @Benchmark
+    public void direct() {
+        direct.sendEmail(user, "message");
+    }
+
+    @Benchmark
+    public void interceptedProxy() {
+        interceptedProxy.sendEmail(user, "message");
+    }
+
+    @Benchmark
+    public void forwardingProxy() {
+        forwardingProxy.sendEmail(user, "message");
+    }
+
+    @Benchmark
+    public void reflectiveProxy() {
+        reflectiveProxy.sendEmail(user, "message");
+    }
+
+    /**
+     * Mail service without I/O. {@link #run()} only gives the forwarding proxy a method to intercept,
+     * so that {@code sendEmail} is proxied but not intercepted.
+     */
+    public static class CountingMailService implements IMailService, Runnable {
+        private long sentCount;
+
+        @Override
+        public void run() {
+            sentCount = 0;
+        }
+
+        @Override
+        public void sendEmail(User user, String message) {
+            sentCount += message.length();
+        }
+
+        @Override
+        public String toString() {
+            return "CountingMailService" + sentCount;
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ProxyBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
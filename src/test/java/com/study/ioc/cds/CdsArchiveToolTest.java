@@ -0,0 +1,74 @@
+package com.study.ioc.cds;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CdsArchiveToolTest {
+
+    @Test
+    public void testFilterGeneratedProxies() {
+        assertTrue(CdsArchiveTool.isGeneratedProxy("jdk/proxy1/$Proxy12 id: 1234"));
+        assertTrue(CdsArchiveTool.isGeneratedProxy("jdk/proxy2/$Proxy3"));
+        assertTrue(CdsArchiveTool.isGeneratedProxy("com/sun/proxy/$Proxy7"));
+        assertFalse(CdsArchiveTool.isGeneratedProxy("com/study/entity/MailService"));
+        assertFalse(CdsArchiveTool.isGeneratedProxy("java/lang/reflect/Proxy"));
+        assertFalse(CdsArchiveTool.isGeneratedProxy("# NOTE: Do not modify this file."));
+    }
+
+    @Test
+    public void testParseArguments() {
+        CdsArchiveTool.Arguments arguments = CdsArchiveTool.Arguments.parse(new String[]{
+                "--class-list=app.classlist", "--archive=app.jsa", "--dump",
+                "-Dioc.profiles.active=prod", "-J-Xmx256m", "context.xml", "extra.xml"
+        }, List.of("-Dmail.port=995", "-Xmx1g", "-XX:+UseG1GC"));
+
+        assertEquals(Path.of("app.classlist"), arguments.classList());
+        assertEquals(Path.of("app.jsa"), arguments.archive());
+        assertTrue(arguments.dump());
+        assertEquals(List.of("-Dmail.port=995", "-Dioc.profiles.active=prod", "-Xmx256m"), arguments.jvmOptions());
+        assertEquals(List.of("context.xml", "extra.xml"), arguments.locations());
+    }
+
+    @Test
+    public void testParseArgumentsUsesDefaults() {
+        CdsArchiveTool.Arguments arguments = CdsArchiveTool.Arguments.parse(new String[]{"context.xml"}, List.of());
+
+        assertEquals(Path.of("ioc.classlist"), arguments.classList());
+        assertEquals(Path.of("ioc.jsa"), arguments.archive());
+        assertFalse(arguments.dump());
+        assertTrue(arguments.jvmOptions().isEmpty());
+        assertEquals(List.of("context.xml"), arguments.locations());
+    }
+
+    @Test
+    public void testParseArgumentsWithoutLocations() {
+        assertThrows(IllegalArgumentException.class,
+                () -> CdsArchiveTool.Arguments.parse(new String[]{"--dump", "-Dioc.profiles.active=prod"}, List.of()));
+    }
+
+    @Test
+    public void testRecordCommandForwardsJvmOptions() {
+        CdsArchiveTool tool = new CdsArchiveTool("app.jar", List.of("-Dioc.profiles.active=prod", "-Xmx256m"));
+
+        List<String> command = tool.getRecordCommand(Path.of("app.classlist"), List.of("context.xml"));
+
+        assertTrue(command.get(0).endsWith("java"));
+        assertEquals(List.of("-Dioc.profiles.active=prod", "-Xmx256m",
+                "-XX:DumpLoadedClassList=app.classlist",
+                "-cp", "app.jar", ContextBootstrap.class.getName(), "context.xml"), command.subList(1, command.size()));
+    }
+
+    @Test
+    public void testDumpCommand() {
+        CdsArchiveTool tool = new CdsArchiveTool("app.jar", List.of("-Dioc.profiles.active=prod"));
+
+        List<String> command = tool.getDumpCommand(Path.of("app.classlist"), Path.of("app.jsa"));
+
+        assertEquals(List.of("-Xshare:dump", "-XX:SharedClassListFile=app.classlist",
+                "-XX:SharedArchiveFile=app.jsa", "-cp", "app.jar"), command.subList(1, command.size()));
+    }
+}
@@ -0,0 +1,161 @@
+package com.study.ioc.context.impl;
+
+import com.study.entity.DefaultUserService;
+import com.study.entity.MailService;
+import com.study.ioc.entity.BeanDefinition;
+import com.study.ioc.exception.BeanInstantiationException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ClassPreloaderTest {
+
+    @Test
+    public void testPreloadCachesConstructors() throws ReflectiveOperationException {
+        ClassPreloader classPreloader = new ClassPreloader(4);
+        classPreloader.preload(List.of("com.study.entity.MailService", "com.study.entity.DefaultUserService",
+                "com.study.entity.MailService"));
+
+        assertEquals(MailService.class, classPreloader.getConstructor("com.study.entity.MailService").getDeclaringClass());
+        assertSame(classPreloader.getConstructor("com.study.entity.DefaultUserService"),
+                classPreloader.getConstructor("com.study.entity.DefaultUserService"));
+        assertEquals(DefaultUserService.class, classPreloader.getConstructor("com.study.entity.DefaultUserService").getDeclaringClass());
+    }
+
+    @Test
+    public void testPreloadDoesNotDeadlockOnMutuallyDependentInitializers() {
+        ClassPreloader classPreloader = new ClassPreloader(4);
+        String first = FirstInitializer.class.getName();
+        String second = SecondInitializer.class.getName();
+        classPreloader.preload(List.of(first, second));
+
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            classPreloader.getConstructor(first).newInstance();
+            classPreloader.getConstructor(second).newInstance();
+        });
+        assertEquals("first:second:null", FirstInitializer.VALUE);
+    }
+
+    @Test
+    public void testConstructorsAreSharedBetweenPreloaders() throws ReflectiveOperationException {
+        assertSame(new ClassPreloader(4).getConstructor("com.study.entity.MailService"),
+                new ClassPreloader(1).getConstructor("com.study.entity.MailService"));
+    }
+
+    @Test
+    public void testConstructorsAreCachedPerClassLoader() throws ReflectiveOperationException {
+        String className = "com.study.entity.MailService";
+
+        assertThrows(ClassNotFoundException.class,
+                () -> new ClassPreloader(1, ClassLoader.getPlatformClassLoader()).getConstructor(className));
+        assertEquals(MailService.class, new ClassPreloader(1).getConstructor(className).getDeclaringClass());
+    }
+
+    @Test
+    public void testFailedLoadsAreNotCached() throws Exception {
+        String className = "com.study.entity.MailService";
+        TogglingClassLoader classLoader = new TogglingClassLoader(className);
+        ClassPreloader classPreloader = new ClassPreloader(2, classLoader);
+        classPreloader.preload(List.of(className));
+
+        assertThrows(BeanInstantiationException.class, () -> classPreloader.verify(List.of(className)));
+        assertThrows(ClassNotFoundException.class, () -> classPreloader.getConstructor(className));
+
+        classLoader.available = true;
+        assertEquals(MailService.class, classPreloader.getConstructor(className).getDeclaringClass());
+    }
+
+    @Test
+    public void testPreloadUsesPoolOfGivenParallelism() throws ReflectiveOperationException {
+        ThreadPoolExecutor executor = (ThreadPoolExecutor) ClassPreloader.getExecutor(3);
+        assertSame(executor, ClassPreloader.getExecutor(3));
+        assertEquals(3, executor.getMaximumPoolSize());
+
+        String className = "com.study.entity.MailService";
+        TogglingClassLoader classLoader = new TogglingClassLoader(className);
+        classLoader.available = true;
+        ClassPreloader classPreloader = new ClassPreloader(3, classLoader);
+        classPreloader.preload(List.of(className));
+        classPreloader.getConstructor(className);
+
+        assertTrue(classLoader.loadingThreadName.startsWith("ioc-class-preloader-"), classLoader.loadingThreadName);
+    }
+
+    @Test
+    public void testVerifyReportsAllMissingClasses() {
+        ClassPreloader classPreloader = new ClassPreloader(4);
+        List<String> classNames = List.of("com.study.entity.MailService", "com.study.entity.FirstMissing",
+                "com.study.entity.SecondMissing");
+        classPreloader.preload(classNames);
+
+        BeanInstantiationException exception = assertThrows(BeanInstantiationException.class,
+                () -> classPreloader.verify(classNames));
+        assertEquals("Bean classes not found: com.study.entity.FirstMissing, com.study.entity.SecondMissing",
+                exception.getMessage());
+        assertInstanceOf(ClassNotFoundException.class, exception.getCause());
+    }
+
+    @Test
+    public void testContextReportsAllMissingClasses() {
+        BeanInstantiationException exception = assertThrows(BeanInstantiationException.class,
+                () -> new GenericApplicationContext(() -> Map.of(
+                        "first", new BeanDefinition("first", "com.study.entity.FirstMissing"),
+                        "second", new BeanDefinition("second", "com.study.entity.SecondMissing"))));
+
+        assertTrue(exception.getMessage().contains("com.study.entity.FirstMissing"));
+        assertTrue(exception.getMessage().contains("com.study.entity.SecondMissing"));
+    }
+
+    private static class TogglingClassLoader extends ClassLoader {
+        private final String className;
+        private volatile boolean available;
+        private volatile String loadingThreadName;
+
+        TogglingClassLoader(String className) {
+            super(ClassPreloaderTest.class.getClassLoader());
+            this.className = className;
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            if (name.equals(className)) {
+                loadingThreadName = Thread.currentThread().getName();
+                if (!available) {
+                    throw new ClassNotFoundException(name);
+                }
+            }
+            return super.loadClass(name, resolve);
+        }
+    }
+
+    public static class FirstInitializer {
+        static final String VALUE;
+
+        static {
+            sleep();
+            VALUE = "first:" + SecondInitializer.VALUE;
+        }
+    }
+
+    public static class SecondInitializer {
+        static final String VALUE;
+
+        static {
+            sleep();
+            VALUE = "second:" + FirstInitializer.VALUE;
+        }
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(100);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
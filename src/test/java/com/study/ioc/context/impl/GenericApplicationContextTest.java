@@ -1,22 +1,54 @@
 package com.study.ioc.context.impl;
 
 import com.study.entity.DefaultUserService;
+import com.study.entity.IMailService;
 import com.study.entity.MailService;
+import com.study.entity.MailServiceFactory;
+import com.study.entity.MailServiceFactoryBean;
+import com.study.entity.MailServiceRegistry;
+import com.study.entity.User;
+import com.study.entity.UserService;
+import com.study.ioc.context.BeanHandle;
+import com.study.ioc.context.metrics.LongAdderBeanLookupMetrics;
+import com.study.ioc.context.metrics.LookupKind;
+import com.study.ioc.context.snapshot.BeanPlan;
+import com.study.ioc.context.snapshot.ContextSnapshot;
+import com.study.ioc.context.snapshot.ContextSnapshotStore;
+import com.study.ioc.context.snapshot.PropertyPlan;
 import com.study.ioc.entity.Bean;
 import com.study.ioc.entity.BeanDefinition;
+import com.study.ioc.entity.CollectionDependency;
+import com.study.ioc.event.ApplicationListener;
 import com.study.ioc.exception.BeanInstantiationException;
 import com.study.ioc.exception.NoSuchBeanDefinitionException;
 import com.study.ioc.exception.NoUniqueBeanOfTypeException;
+import com.study.ioc.factory.FactoryBean;
+import com.study.ioc.intercept.InterceptedProxy;
+import com.study.ioc.intercept.MethodMatcher;
+import com.study.ioc.intercept.ProxyFactory;
+import com.study.ioc.reader.BeanDefinitionReader;
 import com.study.processor.TestBeanFactoryPostProcessor;
 import com.study.processor.TestPostProcessor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -143,6 +175,156 @@ public class GenericApplicationContextTest {
         assertTrue(expectedBeansNames.containsAll(actualBeansNames));
     }
 
+    @Test
+    public void testGetBeanFallsThroughToParent() {
+        GenericApplicationContext parentContext = new GenericApplicationContext();
+        MailService parentMailService = new MailService();
+        parentContext.setBeans(new HashMap<>(Map.of("mailService", new Bean("mailService", parentMailService))));
+
+        GenericApplicationContext childContext = new GenericApplicationContext(parentContext, HashMap::new);
+        DefaultUserService userService = new DefaultUserService();
+        childContext.setBeans(new HashMap<>(Map.of("userService", new Bean("userService", userService))));
+
+        assertSame(parentContext, childContext.getParent());
+        assertSame(userService, childContext.getBean("userService"));
+        assertSame(parentMailService, childContext.getBean("mailService"));
+        assertSame(parentMailService, childContext.getBean(MailService.class));
+        assertSame(parentMailService, childContext.getBean("mailService", MailService.class));
+        assertThrows(NoSuchBeanDefinitionException.class, () -> childContext.getBean("unknown"));
+    }
+
+    @Test
+    public void testLookupMetrics() {
+        LongAdderBeanLookupMetrics lookupMetrics = new LongAdderBeanLookupMetrics();
+        GenericApplicationContext context = new GenericApplicationContext(null, HashMap::new, null, lookupMetrics);
+        Map<String, Bean> beanMap = new HashMap<>();
+        beanMap.put("bean1", new Bean("bean1", new DefaultUserService()));
+        beanMap.put("bean2", new Bean("bean2", new MailService()));
+        context.setBeans(beanMap);
+
+        context.getBean("bean1");
+        context.getBean("bean1");
+        context.getBean(MailService.class);
+        context.getBean("bean2", MailService.class);
+        assertThrows(NoSuchBeanDefinitionException.class, () -> context.getBean("unknown"));
+        assertThrows(NoSuchBeanDefinitionException.class, () -> context.getBean(User.class));
+
+        assertSame(lookupMetrics, context.getLookupMetrics());
+        assertEquals(2, lookupMetrics.getHitCount(LookupKind.BY_ID));
+        assertEquals(1, lookupMetrics.getHitCount(LookupKind.BY_TYPE));
+        assertEquals(1, lookupMetrics.getHitCount(LookupKind.BY_ID_AND_TYPE));
+        assertEquals(1, lookupMetrics.getMissCount(LookupKind.BY_ID));
+        assertEquals(1, lookupMetrics.getMissCount(LookupKind.BY_TYPE));
+        assertEquals(Map.of("bean1", 2L, "bean2", 2L), lookupMetrics.getHitCountsByBean());
+        assertEquals(Map.of("unknown", 1L, User.class.getName(), 1L), lookupMetrics.getMissCountsByKey());
+    }
+
+    @Test
+    public void testLookupMetricsCountParentFallThroughsAsMisses() {
+        GenericApplicationContext parentContext = new GenericApplicationContext(this::createMailDefinitions);
+        LongAdderBeanLookupMetrics lookupMetrics = new LongAdderBeanLookupMetrics();
+        GenericApplicationContext context = new GenericApplicationContext(parentContext, HashMap::new, null, lookupMetrics);
+
+        context.getBean("userService");
+        context.getBean(MailService.class);
+        context.getBean("mailServicePOP", MailService.class);
+
+        assertEquals(1, lookupMetrics.getMissCount(LookupKind.BY_ID));
+        assertEquals(1, lookupMetrics.getMissCount(LookupKind.BY_TYPE));
+        assertEquals(1, lookupMetrics.getMissCount(LookupKind.BY_ID_AND_TYPE));
+        assertEquals(0, lookupMetrics.getMissTimeNanos());
+        assertEquals(Map.of("userService", 1L, MailService.class.getName(), 1L, "mailServicePOP", 1L),
+                lookupMetrics.getMissCountsByKey());
+    }
+
+    @Test
+    public void testBatchRetrieval() {
+        Map<String, Bean> beanMap = new HashMap<>();
+        DefaultUserService userService = new DefaultUserService();
+        MailService mailServicePOP = new MailService();
+        MailService mailServiceIMAP = new MailService();
+        beanMap.put("userService", new Bean("userService", userService));
+        beanMap.put("mailServicePOP", new Bean("mailServicePOP", mailServicePOP));
+        beanMap.put("mailServiceIMAP", new Bean("mailServiceIMAP", mailServiceIMAP));
+        genericApplicationContext.setBeans(beanMap);
+
+        assertEquals(List.of(mailServiceIMAP, userService),
+                genericApplicationContext.getBeansById("mailServiceIMAP", "userService"));
+        assertEquals(List.of(userService), genericApplicationContext.getBeansByClass(DefaultUserService.class));
+        assertEquals(Map.of("mailServicePOP", mailServicePOP, "mailServiceIMAP", mailServiceIMAP),
+                genericApplicationContext.getBeansOfType(IMailService.class));
+        assertEquals(genericApplicationContext.getBeansOfType(IMailService.class),
+                genericApplicationContext.getBeansOfType(IMailService.class));
+        assertThrows(UnsupportedOperationException.class, () -> genericApplicationContext.getBeanNames().add("bean"));
+
+        Map<String, Object> visited = new HashMap<>();
+        genericApplicationContext.forEachBean(visited::put);
+        assertEquals(3, visited.size());
+        assertSame(userService, visited.get("userService"));
+
+        BeanHandle<MailService> handle = genericApplicationContext.getBeanHandle("mailServicePOP", MailService.class);
+        assertEquals("mailServicePOP", handle.getId());
+        assertSame(mailServicePOP, handle.get());
+    }
+
+    @Test
+    public void testBatchRetrievalResolvesFactoryProductsOnAccess() {
+        AtomicInteger objectCount = new AtomicInteger();
+        FactoryBean<MailService> factoryBean = new FactoryBean<>() {
+            @Override
+            public MailService getObject() {
+                objectCount.incrementAndGet();
+                return new MailService();
+            }
+
+            @Override
+            public Class<?> getObjectType() {
+                return MailService.class;
+            }
+
+            @Override
+            public boolean isSingleton() {
+                return false;
+            }
+        };
+        LongAdderBeanLookupMetrics lookupMetrics = new LongAdderBeanLookupMetrics();
+        GenericApplicationContext context = new GenericApplicationContext(null, HashMap::new, null, lookupMetrics);
+        context.setBeans(new HashMap<>(Map.of("mailService", new Bean("mailService", factoryBean))));
+
+        MailService first = context.getBeansOfType(MailService.class).get("mailService");
+        MailService second = context.getBeansOfType(MailService.class).get("mailService");
+        assertNotSame(first, second);
+        assertEquals(2, objectCount.get());
+
+        BeanHandle<MailService> handle = context.getBeanHandle("mailService", MailService.class);
+        assertEquals(2, objectCount.get());
+        assertEquals(0, lookupMetrics.getHitCount(LookupKind.BY_ID));
+        assertNotSame(handle.get(), handle.get());
+        assertEquals(4, objectCount.get());
+        assertEquals(2, lookupMetrics.getHitCount(LookupKind.BY_ID));
+        assertSame(factoryBean, context.getBeanHandle("&mailService", FactoryBean.class).get());
+        assertThrows(NoSuchBeanDefinitionException.class, () -> context.getBeanHandle("unknown", MailService.class));
+    }
+
+    @Test
+    public void testPublishEvent() {
+        List<String> received = new ArrayList<>();
+        ApplicationListener<String> listener = new ApplicationListener<>() {
+            @Override
+            public void onApplicationEvent(String event) {
+                received.add(event);
+            }
+        };
+        Map<String, Bean> beanMap = new HashMap<>();
+        beanMap.put("listener", new Bean("listener", listener));
+        beanMap.put("mailService", new Bean("mailService", new MailService()));
+        genericApplicationContext.setBeans(beanMap);
+
+        genericApplicationContext.publishEvent("user activated");
+
+        assertEquals(List.of("user activated"), received);
+    }
+
     @Test
     public void testInjectValueDependencies() {
         Map<String, Bean> beanMap = new HashMap<>();
@@ -202,6 +384,324 @@ public class GenericApplicationContextTest {
         assertEquals("POP3", ((MailService) userService.getMailService()).getProtocol());
     }
 
+    @Test
+    public void testInjectRefDependenciesFromParent() {
+        GenericApplicationContext parentContext = new GenericApplicationContext();
+        MailService mailServicePOP = new MailService();
+        parentContext.setBeans(new HashMap<>(Map.of("mailServicePOP", new Bean("mailServicePOP", mailServicePOP))));
+        GenericApplicationContext childContext = new GenericApplicationContext(parentContext, HashMap::new);
+
+        Map<String, Bean> beanMap = new HashMap<>();
+        DefaultUserService userService = new DefaultUserService();
+        beanMap.put("userService", new Bean("userService", userService));
+
+        BeanDefinition userServiceBeanDefinition = new BeanDefinition("userService", "com.study.entity.DefaultUserService");
+        userServiceBeanDefinition.setRefDependencies(Map.of("mailService", "mailServicePOP"));
+
+        childContext.injectRefDependencies(Map.of("userService", userServiceBeanDefinition), beanMap);
+        assertSame(mailServicePOP, userService.getMailService());
+    }
+
+    @Test
+    public void testInjectProxiesCreatedAfterInitialization() {
+        Map<String, BeanDefinition> beanDefinitionMap = createMailDefinitions();
+        beanDefinitionMap.put("interceptingPostProcessor",
+                new BeanDefinition("interceptingPostProcessor", "com.study.processor.TestInterceptingPostProcessor"));
+        GenericApplicationContext context = new GenericApplicationContext(() -> beanDefinitionMap);
+
+        Object mailService = context.getBean("mailServicePOP");
+        assertInstanceOf(InterceptedProxy.class, mailService);
+        assertSame(mailService, context.getBean("userService", DefaultUserService.class).getMailService());
+        assertThrows(NoSuchBeanDefinitionException.class, () -> context.getBean("interceptingPostProcessor"));
+    }
+
+    @Test
+    public void testGetInterceptedBeanByType() {
+        Map<String, BeanDefinition> beanDefinitionMap = createMailDefinitions();
+        beanDefinitionMap.put("interceptingPostProcessor",
+                new BeanDefinition("interceptingPostProcessor", "com.study.processor.TestInterceptingPostProcessor"));
+        GenericApplicationContext context = new GenericApplicationContext(() -> beanDefinitionMap);
+
+        Object mailService = context.getBean("mailServicePOP");
+        assertSame(mailService, context.getBean(MailService.class));
+        assertSame(mailService, context.getBean(IMailService.class));
+        assertSame(mailService, context.getBean("mailServicePOP", MailService.class));
+        assertSame(mailService, context.getBean("mailServicePOP", IMailService.class));
+        assertEquals(995, context.getBean(MailService.class).getPort());
+        assertSame(context.getBean("userService"), context.getBean(UserService.class));
+    }
+
+    @Test
+    public void testGetPlainBeanByInterfaceAndSuperclass() {
+        Map<String, BeanDefinition> beanDefinitionMap = createMailDefinitions();
+        beanDefinitionMap.put("mailServiceIMAP", BeanDefinition.builder()
+                .id("mailServiceIMAP")
+                .className(ImapMailService.class.getName())
+                .valueDependencies(Map.of())
+                .refDependencies(Map.of())
+                .build());
+        GenericApplicationContext context = new GenericApplicationContext(() -> beanDefinitionMap);
+
+        Object userService = context.getBean("userService");
+        assertSame(userService, context.getBean(UserService.class));
+        assertSame(userService, context.getBean("userService", UserService.class));
+        assertSame(context.getBean("mailServiceIMAP"), context.getBean(ImapMailService.class));
+        assertSame(context.getBean("mailServiceIMAP"), context.getBean("mailServiceIMAP", MailService.class));
+        assertThrows(NoUniqueBeanOfTypeException.class, () -> context.getBean(MailService.class));
+        assertThrows(NoUniqueBeanOfTypeException.class, () -> context.getBean(IMailService.class));
+        assertThrows(NoSuchBeanDefinitionException.class, () -> context.getBean(Object.class));
+    }
+
+    @Test
+    public void testInjectCollectionDependencies() {
+        Map<String, BeanDefinition> beanDefinitionMap = new LinkedHashMap<>(createMailDefinitions());
+        beanDefinitionMap.put("mailServiceIMAP", BeanDefinition.builder()
+                .id("mailServiceIMAP")
+                .className("com.study.entity.MailService")
+                .valueDependencies(Map.of())
+                .refDependencies(Map.of())
+                .build());
+        BeanDefinition registryDefinition = BeanDefinition.builder()
+                .id("registry")
+                .className("com.study.entity.MailServiceRegistry")
+                .valueDependencies(Map.of())
+                .refDependencies(Map.of())
+                .build();
+        registryDefinition.setCollectionDependencies(Map.of(
+                "mailServices", new CollectionDependency(CollectionDependency.Kind.LIST, null, List.of(
+                        new CollectionDependency.Element(null, null, "mailServiceIMAP"),
+                        new CollectionDependency.Element(null, null, "mailServicePOP"))),
+                "allMailServices", new CollectionDependency(CollectionDependency.Kind.LIST,
+                        "com.study.entity.IMailService", List.of()),
+                "protocols", new CollectionDependency(CollectionDependency.Kind.SET, null, List.of(
+                        new CollectionDependency.Element(null, "POP3", null),
+                        new CollectionDependency.Element(null, "IMAP", null),
+                        new CollectionDependency.Element(null, "POP3", null))),
+                "mailServicesById", new CollectionDependency(CollectionDependency.Kind.MAP, null, List.of(
+                        new CollectionDependency.Element("pop", null, "mailServicePOP"),
+                        new CollectionDependency.Element("default", "none", null)))));
+        beanDefinitionMap.put("registry", registryDefinition);
+
+        GenericApplicationContext context = new GenericApplicationContext(() -> beanDefinitionMap);
+        MailServiceRegistry registry = context.getBean(MailServiceRegistry.class);
+        Object mailServicePOP = context.getBean("mailServicePOP");
+        Object mailServiceIMAP = context.getBean("mailServiceIMAP");
+
+        assertEquals(List.of(mailServiceIMAP, mailServicePOP), registry.getMailServices());
+        assertThrows(UnsupportedOperationException.class, () -> registry.getMailServices().add(null));
+        assertEquals(Set.of(mailServicePOP, mailServiceIMAP), Set.of(registry.getAllMailServices()));
+        assertEquals(List.of("POP3", "IMAP"), List.copyOf(registry.getProtocols()));
+        assertTrue(registry.getProtocols().contains("IMAP"));
+        assertEquals(Map.of("pop", mailServicePOP, "default", "none"), registry.getMailServicesById());
+    }
+
+    @Test
+    public void testInjectCollectionDependenciesConvertsValues() {
+        Map<String, BeanDefinition> beanDefinitionMap = new LinkedHashMap<>();
+        BeanDefinition registryDefinition = createDefinition("registry", "com.study.entity.MailServiceRegistry");
+        registryDefinition.setCollectionDependencies(Map.of(
+                "ports", new CollectionDependency(CollectionDependency.Kind.LIST, null, List.of(
+                        new CollectionDependency.Element(null, "110", null),
+                        new CollectionDependency.Element(null, "995", null))),
+                "defaultPorts", new CollectionDependency(CollectionDependency.Kind.LIST, null, List.of(
+                        new CollectionDependency.Element(null, "143", null))),
+                "secureByPort", new CollectionDependency(CollectionDependency.Kind.MAP, null, List.of(
+                        new CollectionDependency.Element("995", "true", null),
+                        new CollectionDependency.Element("110", "false", null))),
+                "weights", new CollectionDependency(CollectionDependency.Kind.LIST, null, List.of(
+                        new CollectionDependency.Element(null, "0.75", null))),
+                "ratios", new CollectionDependency(CollectionDependency.Kind.LIST, null, List.of(
+                        new CollectionDependency.Element(null, "1.5", null))),
+                "separators", new CollectionDependency(CollectionDependency.Kind.SET, null, List.of(
+                        new CollectionDependency.Element(null, ",", null),
+                        new CollectionDependency.Element(null, ";", null)))));
+        beanDefinitionMap.put("registry", registryDefinition);
+
+        MailServiceRegistry registry = new GenericApplicationContext(() -> beanDefinitionMap).getBean(MailServiceRegistry.class);
+
+        assertArrayEquals(new int[]{110, 995}, registry.getPorts());
+        assertEquals(List.of(143), registry.getDefaultPorts());
+        assertEquals(Map.of(995, true, 110, false), registry.getSecureByPort());
+        assertEquals(List.of(0.75), registry.getWeights());
+        assertArrayEquals(new float[]{1.5f}, registry.getRatios());
+        assertEquals(Set.of(',', ';'), registry.getSeparators());
+    }
+
+    @Test
+    public void testInjectMapOfBeansOfTypeRejectsNonStringKeys() {
+        Map<String, BeanDefinition> beanDefinitionMap = new LinkedHashMap<>(createMailDefinitions());
+        BeanDefinition registryDefinition = createDefinition("registry", "com.study.entity.MailServiceRegistry");
+        registryDefinition.setCollectionDependencies(Map.of("mailServicesByPort",
+                new CollectionDependency(CollectionDependency.Kind.MAP, "com.study.entity.IMailService", List.of())));
+        beanDefinitionMap.put("registry", registryDefinition);
+
+        BeanInstantiationException exception = assertThrows(BeanInstantiationException.class,
+                () -> new GenericApplicationContext(() -> beanDefinitionMap));
+        assertInstanceOf(BeanInstantiationException.class, exception.getCause());
+    }
+
+    @Test
+    public void testCreateBeansWithFactoryMethods() {
+        Map<String, BeanDefinition> beanDefinitionMap = new LinkedHashMap<>();
+        BeanDefinition userServiceDefinition = createDefinition("userService", "com.study.entity.DefaultUserService");
+        userServiceDefinition.setRefDependencies(Map.of("mailService", "imapMailService"));
+        beanDefinitionMap.put("userService", userServiceDefinition);
+        BeanDefinition imapMailServiceDefinition = createDefinition("imapMailService", null);
+        imapMailServiceDefinition.setFactoryBean("mailServiceFactory");
+        imapMailServiceDefinition.setFactoryMethod("create");
+        beanDefinitionMap.put("imapMailService", imapMailServiceDefinition);
+        BeanDefinition factoryDefinition = createDefinition("mailServiceFactory", "com.study.entity.MailServiceFactory");
+        factoryDefinition.setValueDependencies(Map.of("protocol", "IMAP"));
+        beanDefinitionMap.put("mailServiceFactory", factoryDefinition);
+        BeanDefinition smtpMailServiceDefinition = createDefinition("smtpMailService", "com.study.entity.MailServiceFactory");
+        smtpMailServiceDefinition.setFactoryMethod("createDefault");
+        beanDefinitionMap.put("smtpMailService", smtpMailServiceDefinition);
+
+        GenericApplicationContext context = new GenericApplicationContext(() -> beanDefinitionMap);
+
+        MailService imapMailService = (MailService) context.getBean("imapMailService");
+        assertEquals("IMAP", imapMailService.getProtocol());
+        assertSame(imapMailService, context.getBean("userService", DefaultUserService.class).getMailService());
+        assertInstanceOf(FactoryBean.class, context.getBean("&imapMailService"));
+        assertEquals("SMTP", context.getBean("smtpMailService", MailService.class).getProtocol());
+    }
+
+    @Test
+    public void testCreateBeansWithInterceptedFactoryFromParent() {
+        AtomicInteger factoryCalls = new AtomicInteger();
+        ProxyFactory proxyFactory = new ProxyFactory(MethodMatcher.named("create"), invocation -> {
+            factoryCalls.incrementAndGet();
+            return invocation.proceed();
+        });
+        MailServiceFactory factory = new MailServiceFactory();
+        factory.setProtocol("IMAP");
+        GenericApplicationContext parentContext = new GenericApplicationContext();
+        parentContext.setBeans(new HashMap<>(Map.of("mailServiceFactory",
+                new Bean("mailServiceFactory", proxyFactory.getProxy(factory)))));
+
+        BeanDefinition productDefinition = createDefinition("imapMailService", null);
+        productDefinition.setFactoryBean("mailServiceFactory");
+        productDefinition.setFactoryMethod("create");
+        GenericApplicationContext context = new GenericApplicationContext(parentContext,
+                () -> Map.of("imapMailService", productDefinition));
+
+        assertEquals("IMAP", context.getBean("imapMailService", MailService.class).getProtocol());
+        assertEquals(1, factoryCalls.get());
+    }
+
+    @Test
+    public void testInjectFactoryBeforeCreatingProductForEarlierConsumer() {
+        Map<String, BeanDefinition> beanDefinitionMap = new LinkedHashMap<>();
+        BeanDefinition userServiceDefinition = createDefinition("userService", "com.study.entity.DefaultUserService");
+        userServiceDefinition.setRefDependencies(Map.of("mailService", "copiedMailService"));
+        beanDefinitionMap.put("userService", userServiceDefinition);
+        BeanDefinition productDefinition = createDefinition("copiedMailService", null);
+        productDefinition.setFactoryBean("mailServiceFactory");
+        productDefinition.setFactoryMethod("createFromDefaults");
+        beanDefinitionMap.put("copiedMailService", productDefinition);
+        BeanDefinition factoryDefinition = createDefinition("mailServiceFactory", "com.study.entity.MailServiceFactory");
+        factoryDefinition.setRefDependencies(Map.of("defaults", "defaultMailService"));
+        beanDefinitionMap.put("mailServiceFactory", factoryDefinition);
+        BeanDefinition defaultsDefinition = createDefinition("defaultMailService", "com.study.entity.MailService");
+        defaultsDefinition.setValueDependencies(Map.of("protocol", "POP3", "port", "995"));
+        beanDefinitionMap.put("defaultMailService", defaultsDefinition);
+
+        GenericApplicationContext context = new GenericApplicationContext(() -> beanDefinitionMap);
+
+        MailService mailService = (MailService) context.getBean("userService", DefaultUserService.class).getMailService();
+        assertSame(context.getBean("copiedMailService"), mailService);
+        assertEquals("POP3", mailService.getProtocol());
+    }
+
+    @Test
+    public void testRunBeanLifecycleOnFactoryProducts() {
+        Map<String, BeanDefinition> beanDefinitionMap = new LinkedHashMap<>();
+        beanDefinitionMap.put("interceptingPostProcessor",
+                new BeanDefinition("interceptingPostProcessor", "com.study.processor.TestInterceptingPostProcessor"));
+        BeanDefinition productDefinition = createDefinition("imapMailService", null);
+        productDefinition.setFactoryBean("mailServiceFactory");
+        productDefinition.setFactoryMethod("create");
+        productDefinition.setValueDependencies(Map.of("protocol", "IMAP"));
+        beanDefinitionMap.put("imapMailService", productDefinition);
+        beanDefinitionMap.put("mailServiceFactory", createDefinition("mailServiceFactory", "com.study.entity.MailServiceFactory"));
+        beanDefinitionMap.put("factoryBeanMailService",
+                createDefinition("factoryBeanMailService", "com.study.entity.MailServiceFactoryBean"));
+
+        GenericApplicationContext context = new GenericApplicationContext(() -> beanDefinitionMap);
+
+        MailService imapMailService = (MailService) context.getBean("imapMailService");
+        assertInstanceOf(InterceptedProxy.class, imapMailService);
+        assertEquals("IMAP", imapMailService.getProtocol());
+        assertEquals(1174, imapMailService.getPort());
+        assertInstanceOf(InterceptedProxy.class, context.getBean("factoryBeanMailService"));
+    }
+
+    @Test
+    public void testGetBeanCreatesFactoryBeanObjectOnce() {
+        Map<String, BeanDefinition> beanDefinitionMap = Map.of("mailService",
+                createDefinition("mailService", "com.study.entity.MailServiceFactoryBean"));
+        GenericApplicationContext context = new GenericApplicationContext(() -> beanDefinitionMap);
+        MailServiceFactoryBean factoryBean = (MailServiceFactoryBean) context.getBean("&mailService");
+        assertEquals(0, factoryBean.getObjectCount());
+
+        MailService mailService = context.getBean(MailService.class);
+
+        assertSame(mailService, context.getBean("mailService"));
+        assertSame(mailService, context.getBean("mailService", MailService.class));
+        assertEquals(1, factoryBean.getObjectCount());
+    }
+
+    @Test
+    public void testGetFactoryBeanWithUnknownObjectTypeByType() {
+        UntypedMailServiceFactoryBean factoryBean = new UntypedMailServiceFactoryBean();
+        genericApplicationContext.setBeans(new HashMap<>(Map.of("mailService", new Bean("mailService", factoryBean))));
+
+        assertSame(factoryBean, genericApplicationContext.getBean(UntypedMailServiceFactoryBean.class));
+        assertSame(factoryBean, genericApplicationContext.getBean("mailService", UntypedMailServiceFactoryBean.class));
+        assertInstanceOf(MailService.class, genericApplicationContext.getBean("mailService"));
+        assertThrows(NoSuchBeanDefinitionException.class, () -> genericApplicationContext.getBean(MailService.class));
+    }
+
+    @Test
+    public void testConcurrentFirstLookupsCreateFactoryBeanObjectOnce() throws Exception {
+        AtomicInteger objectCount = new AtomicInteger();
+        FactoryBean<MailService> factoryBean = new FactoryBean<>() {
+            @Override
+            public MailService getObject() throws InterruptedException {
+                objectCount.incrementAndGet();
+                Thread.sleep(50);
+                return new MailService();
+            }
+
+            @Override
+            public Class<?> getObjectType() {
+                return MailService.class;
+            }
+        };
+        genericApplicationContext.setBeans(new HashMap<>(Map.of("mailService", new Bean("mailService", factoryBean))));
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Object>> lookups = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                lookups.add(executor.submit(() -> {
+                    start.await();
+                    return genericApplicationContext.getBean("mailService");
+                }));
+            }
+            start.countDown();
+
+            Object mailService = lookups.get(0).get();
+            for (Future<Object> lookup : lookups) {
+                assertSame(mailService, lookup.get());
+            }
+            assertEquals(1, objectCount.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
     @Test
     public void testInjectValue() throws ReflectiveOperationException {
         MailService mailService = new MailService();
@@ -260,4 +760,110 @@ public class GenericApplicationContextTest {
 
         assertEquals("newClassName", beanDefinitionList.get(0).getClassName());
     }
+
+    @Test
+    public void testRestoreContextFromSnapshot(@TempDir Path tempDir) {
+        Path snapshotPath = tempDir.resolve("context.snapshot");
+        GenericApplicationContext recordedContext = new GenericApplicationContext(null,
+                new SnapshotTestReader("checksum", this::createMailDefinitions), snapshotPath);
+        assertTrue(Files.exists(snapshotPath));
+        assertEquals(995, recordedContext.getBean("mailServicePOP", MailService.class).getPort());
+
+        GenericApplicationContext restoredContext = new GenericApplicationContext(null,
+                new SnapshotTestReader("checksum", () -> {
+                    throw new IllegalStateException("Definitions must not be read when snapshot is valid");
+                }), snapshotPath);
+
+        MailService mailService = restoredContext.getBean("mailServicePOP", MailService.class);
+        assertEquals(995, mailService.getPort());
+        assertEquals("POP3", mailService.getProtocol());
+        assertSame(mailService, restoredContext.getBean("userService", DefaultUserService.class).getMailService());
+    }
+
+    @Test
+    public void testSnapshotIgnoredWhenChecksumChanges(@TempDir Path tempDir) {
+        Path snapshotPath = tempDir.resolve("context.snapshot");
+        new GenericApplicationContext(null, new SnapshotTestReader("checksum", this::createMailDefinitions), snapshotPath);
+
+        Map<String, BeanDefinition> changedDefinitions = createMailDefinitions();
+        changedDefinitions.get("mailServicePOP").setValueDependencies(Map.of("port", "110", "protocol", "POP3"));
+        GenericApplicationContext context = new GenericApplicationContext(null,
+                new SnapshotTestReader("changed", () -> changedDefinitions), snapshotPath);
+
+        assertEquals(110, context.getBean("mailServicePOP", MailService.class).getPort());
+    }
+
+    @Test
+    public void testSnapshotRecordedAgainWhenRestoreFails(@TempDir Path tempDir) {
+        Path snapshotPath = tempDir.resolve("context.snapshot");
+        ContextSnapshotStore snapshotStore = new ContextSnapshotStore(snapshotPath);
+        snapshotStore.save(new ContextSnapshot("checksum", List.of(), List.of(new BeanPlan("mailServicePOP",
+                "com.study.entity.MailService", List.of(new PropertyPlan("setRemoved", "int", 995)), List.of()))));
+
+        GenericApplicationContext context = new GenericApplicationContext(null,
+                new SnapshotTestReader("checksum", this::createMailDefinitions), snapshotPath);
+
+        assertEquals(995, context.getBean("mailServicePOP", MailService.class).getPort());
+        assertSame(context.getBean("mailServicePOP"), context.getBean("userService", DefaultUserService.class).getMailService());
+        ContextSnapshot snapshot = snapshotStore.load("checksum");
+        assertEquals(Set.of("mailServicePOP", "userService"),
+                snapshot.getBeanPlans().stream().map(BeanPlan::getId).collect(Collectors.toSet()));
+        assertTrue(snapshot.getBeanPlans().stream().flatMap(plan -> plan.getValueProperties().stream())
+                .noneMatch(property -> property.getSetterName().equals("setRemoved")));
+    }
+
+    private BeanDefinition createDefinition(String id, String className) {
+        return BeanDefinition.builder()
+                .id(id)
+                .className(className)
+                .valueDependencies(Map.of())
+                .refDependencies(Map.of())
+                .build();
+    }
+
+    private Map<String, BeanDefinition> createMailDefinitions() {
+        Map<String, BeanDefinition> beanDefinitionMap = new HashMap<>();
+        beanDefinitionMap.put("mailServicePOP", BeanDefinition.builder()
+                .id("mailServicePOP")
+                .className("com.study.entity.MailService")
+                .valueDependencies(Map.of("port", "995", "protocol", "POP3"))
+                .refDependencies(Map.of())
+                .build());
+        beanDefinitionMap.put("userService", BeanDefinition.builder()
+                .id("userService")
+                .className("com.study.entity.DefaultUserService")
+                .valueDependencies(Map.of())
+                .refDependencies(Map.of("mailService", "mailServicePOP"))
+                .build());
+        return beanDefinitionMap;
+    }
+
+    public static class ImapMailService extends MailService {
+    }
+
+    public static class UntypedMailServiceFactoryBean implements FactoryBean<MailService> {
+
+        @Override
+        public MailService getObject() {
+            return new MailService();
+        }
+
+        @Override
+        public Class<?> getObjectType() {
+            return null;
+        }
+    }
+
+    private record SnapshotTestReader(String checksum, BeanDefinitionReader delegate) implements BeanDefinitionReader {
+
+        @Override
+        public Map<String, BeanDefinition> getBeanDefinition() {
+            return delegate.getBeanDefinition();
+        }
+
+        @Override
+        public String getChecksum() {
+            return checksum;
+        }
+    }
 }
@@ -0,0 +1,69 @@
+package com.study.ioc.context.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LongAdderBeanLookupMetricsTest {
+
+    @Test
+    public void testMissKeysAreCapped() {
+        LongAdderBeanLookupMetrics lookupMetrics = new LongAdderBeanLookupMetrics(3);
+
+        for (int i = 0; i < 10; i++) {
+            lookupMetrics.recordMiss(LookupKind.BY_ID, "unknown" + i, 1);
+        }
+        lookupMetrics.recordMiss(LookupKind.BY_ID, "unknown0", 1);
+
+        assertEquals(Map.of("unknown0", 2L, "unknown1", 1L, LongAdderBeanLookupMetrics.OTHER_MISSES_KEY, 8L),
+                lookupMetrics.getMissCountsByKey());
+        assertEquals(11, lookupMetrics.getMissCount(LookupKind.BY_ID));
+    }
+
+    @Test
+    public void testMissKeysAreCappedUnderConcurrentMisses() throws Exception {
+        LongAdderBeanLookupMetrics lookupMetrics = new LongAdderBeanLookupMetrics(10);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < 8; thread++) {
+                int offset = thread * 100;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < 100; i++) {
+                        lookupMetrics.recordMiss(LookupKind.BY_TYPE, "unknown" + (offset + i), 1);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(10, lookupMetrics.getMissCountsByKey().size());
+        assertEquals(800, lookupMetrics.getMissCount(LookupKind.BY_TYPE));
+    }
+
+    @Test
+    public void testMaxMissKeysMustBePositive() {
+        assertThrows(IllegalArgumentException.class, () -> new LongAdderBeanLookupMetrics(0));
+        LongAdderBeanLookupMetrics lookupMetrics = new LongAdderBeanLookupMetrics(1);
+        lookupMetrics.recordMiss(LookupKind.BY_ID, "unknown", 1);
+        assertTrue(lookupMetrics.getMissCountsByKey().containsKey(LongAdderBeanLookupMetrics.OTHER_MISSES_KEY));
+    }
+}
@@ -0,0 +1,43 @@
+package com.study.ioc.context.snapshot;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ContextSnapshotStoreTest {
+
+    @Test
+    public void testSaveAndLoad(@TempDir Path tempDir) throws Exception {
+        Path path = tempDir.resolve("context.snapshot");
+        ContextSnapshotStore store = new ContextSnapshotStore(path);
+        BeanPlan beanPlan = new BeanPlan("mailServicePOP", "com.study.entity.MailService",
+                List.of(new PropertyPlan("setPort", "int", 995), new PropertyPlan("setProtocol", "java.lang.String", "POP3")),
+                List.of());
+
+        store.save(new ContextSnapshot("checksum", List.of(), List.of(beanPlan)));
+
+        ContextSnapshot snapshot = store.load("checksum");
+        assertEquals(995, snapshot.getBeanPlans().get(0).getValueProperties().get(0).getValue());
+        assertNull(store.load("other"));
+        try (var files = Files.list(tempDir)) {
+            assertEquals(List.of(path), files.toList());
+        }
+    }
+
+    @Test
+    public void testLoadRejectsUnexpectedClasses(@TempDir Path tempDir) throws Exception {
+        Path path = tempDir.resolve("context.snapshot");
+        try (ObjectOutputStream outputStream = new ObjectOutputStream(Files.newOutputStream(path))) {
+            outputStream.writeObject(new HashMap<>());
+        }
+
+        assertNull(new ContextSnapshotStore(path).load("checksum"));
+    }
+}
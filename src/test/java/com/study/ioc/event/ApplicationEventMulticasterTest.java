@@ -0,0 +1,207 @@
+package com.study.ioc.event;
+
+import com.study.ioc.intercept.InterceptedProxy;
+import com.study.ioc.intercept.MethodInvocation;
+import com.study.ioc.intercept.MethodMatcher;
+import com.study.ioc.intercept.ProxyFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ApplicationEventMulticasterTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    @AfterEach
+    public void shutdownExecutor() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testMulticastEventByType() {
+        MessageListener messageListener = new MessageListener();
+        List<Object> allEvents = new ArrayList<>();
+        ApplicationListener<Object> objectListener = allEvents::add;
+        ApplicationEventMulticaster multicaster = new ApplicationEventMulticaster(List.of(messageListener, objectListener));
+
+        multicaster.multicastEvent("message");
+        multicaster.multicastEvent(42);
+
+        assertEquals(List.of("message"), messageListener.messages);
+        assertEquals(List.of("message", 42), allEvents);
+    }
+
+    @Test
+    public void testMulticastEventToSubclassListener() {
+        List<Object> received = new ArrayList<>();
+        ApplicationListener<Number> numberListener = new ApplicationListener<>() {
+            @Override
+            public void onApplicationEvent(Number event) {
+                received.add(event);
+            }
+        };
+        ApplicationEventMulticaster multicaster = new ApplicationEventMulticaster(List.of(numberListener));
+
+        multicaster.multicastEvent(1L);
+        multicaster.multicastEvent("ignored");
+
+        assertEquals(List.of(1L), received);
+    }
+
+    @Test
+    public void testMulticastEventAsyncKeepsOrder() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(100);
+        List<Integer> received = new CopyOnWriteArrayList<>();
+        ApplicationListener<Integer> listener = new ApplicationListener<>() {
+            @Override
+            public void onApplicationEvent(Integer event) {
+                received.add(event);
+                latch.countDown();
+            }
+        };
+        ApplicationEventMulticaster multicaster = new ApplicationEventMulticaster(List.of(listener), executor, 8);
+
+        for (int i = 0; i < 100; i++) {
+            multicaster.multicastEventAsync(i);
+        }
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, received.get(i));
+        }
+    }
+
+    @Test
+    public void testMulticastEventAsyncOnSharedExecutor() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(2);
+        ApplicationListener<String> listener = ApplicationListener.forEventType(String.class, event -> latch.countDown());
+
+        new ApplicationEventMulticaster(List.of(listener)).multicastEventAsync("first");
+        new ApplicationEventMulticaster(List.of(listener)).multicastEventAsync("second");
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testResolveEventTypeThroughGenericSupertypes() {
+        assertEquals(String.class, ApplicationEventMulticaster.resolveEventType(MessageListener.class));
+        assertEquals(Integer.class, ApplicationEventMulticaster.resolveEventType(IntegerListener.class));
+        assertEquals(Long.class, ApplicationEventMulticaster.resolveEventType(LongListener.class));
+        assertEquals(Number.class, ApplicationEventMulticaster.resolveEventType(RawNumberListener.class));
+        assertEquals(Object.class, ApplicationEventMulticaster.resolveEventType(RawListener.class));
+    }
+
+    @Test
+    public void testMulticastEventToListenersWithGenericSupertypes() {
+        IntegerListener integerListener = new IntegerListener();
+        LongListener longListener = new LongListener();
+        ApplicationEventMulticaster multicaster = new ApplicationEventMulticaster(List.of(integerListener, longListener));
+
+        multicaster.multicastEvent(42);
+        multicaster.multicastEvent(7L);
+        multicaster.multicastEvent("ignored");
+
+        assertEquals(List.of(42), integerListener.events);
+        assertEquals(List.of(7L), longListener.events);
+    }
+
+    @Test
+    public void testMulticastEventSkipsTypedLambdaListenerOfOtherType() {
+        List<String> messages = new ArrayList<>();
+        ApplicationListener<String> lambdaListener = ApplicationListener.forEventType(String.class, messages::add);
+        ApplicationEventMulticaster multicaster = new ApplicationEventMulticaster(List.of(lambdaListener));
+
+        multicaster.multicastEvent(42);
+        multicaster.multicastEvent("message");
+
+        assertEquals(List.of("message"), messages);
+    }
+
+    @Test
+    public void testMulticastEventPropagatesClassCastExceptionOfUntypedLambdaListener() {
+        List<String> messages = new ArrayList<>();
+        ApplicationListener<String> lambdaListener = messages::add;
+        ApplicationEventMulticaster multicaster = new ApplicationEventMulticaster(List.of(lambdaListener));
+
+        assertThrows(ClassCastException.class, () -> multicaster.multicastEvent(42));
+    }
+
+    @Test
+    public void testMulticastEventPropagatesClassCastExceptionOfListener() {
+        ApplicationListener<Integer> listener = new ApplicationListener<>() {
+            @Override
+            public void onApplicationEvent(Integer event) {
+                throw new ClassCastException("class " + Integer.class.getName() + " cannot be cast to class java.lang.String");
+            }
+        };
+        ApplicationEventMulticaster multicaster = new ApplicationEventMulticaster(List.of(listener));
+
+        assertThrows(ClassCastException.class, () -> multicaster.multicastEvent(42));
+    }
+
+    @Test
+    public void testMulticastEventToInterceptedListener() {
+        IntegerListener target = new FinalIntegerListener();
+        Object proxy = new ProxyFactory(MethodMatcher.named("onApplicationEvent"), MethodInvocation::proceed).getProxy(target);
+        ApplicationEventMulticaster multicaster = new ApplicationEventMulticaster(List.of((ApplicationListener<?>) proxy));
+
+        multicaster.multicastEvent("ignored");
+        multicaster.multicastEvent(42);
+
+        assertInstanceOf(InterceptedProxy.class, proxy);
+        assertEquals(List.of(42), target.events);
+    }
+
+    private abstract static class RecordingListener<E> implements ApplicationListener<E> {
+        final List<E> events = new ArrayList<>();
+
+        @Override
+        public void onApplicationEvent(E event) {
+            events.add(event);
+        }
+    }
+
+    private static class IntegerListener extends RecordingListener<Integer> {
+    }
+
+    private static final class FinalIntegerListener extends IntegerListener {
+    }
+
+    private interface NumberListener<N extends Number> extends ApplicationListener<N> {
+    }
+
+    private static class LongListener extends RecordingListener<Long> implements NumberListener<Long> {
+    }
+
+    @SuppressWarnings("rawtypes")
+    private static class RawNumberListener implements NumberListener {
+        @Override
+        public void onApplicationEvent(Object event) {
+        }
+    }
+
+    @SuppressWarnings("rawtypes")
+    private static class RawListener implements ApplicationListener {
+        @Override
+        public void onApplicationEvent(Object event) {
+        }
+    }
+
+    private static class MessageListener implements ApplicationListener<String> {
+        private final List<String> messages = new ArrayList<>();
+
+        @Override
+        public void onApplicationEvent(String event) {
+            messages.add(event);
+        }
+    }
+}
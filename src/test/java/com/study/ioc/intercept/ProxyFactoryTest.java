@@ -0,0 +1,220 @@
+package com.study.ioc.intercept;
+
+import com.study.entity.DefaultUserService;
+import com.study.entity.IMailService;
+import com.study.entity.MailService;
+import com.study.entity.User;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.DoubleSupplier;
+import java.util.function.LongBinaryOperator;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ProxyFactoryTest {
+
+    @Test
+    public void testInterceptOnlyMatchingMethods() {
+        List<String> calls = new ArrayList<>();
+        ProxyFactory proxyFactory = new ProxyFactory(MethodMatcher.named("sendEmail"), invocation -> {
+            calls.add(invocation.getMethod().getName() + ":" + invocation.getArguments()[1]);
+            return invocation.proceed();
+        });
+        MailService mailService = new MailService();
+
+        IMailService proxy = (IMailService) proxyFactory.getProxy(mailService);
+        proxy.sendEmail(new User(), "hello");
+        proxy.toString();
+
+        assertInstanceOf(InterceptedProxy.class, proxy);
+        assertSame(mailService, ((InterceptedProxy) proxy).getInterceptedTarget());
+        assertEquals(List.of("sendEmail:hello"), calls);
+    }
+
+    @Test
+    public void testProxyExtendsTargetClass() {
+        ProxyFactory proxyFactory = new ProxyFactory(MethodMatcher.named("getPort"), invocation -> (int) invocation.proceed() + 1);
+        MailService mailService = MailService.builder().protocol("POP3").port(110).build();
+
+        MailService proxy = (MailService) proxyFactory.getProxy(mailService);
+        proxy.setPort(995);
+
+        assertEquals(996, proxy.getPort());
+        assertEquals(995, mailService.getPort());
+        assertEquals("POP3", proxy.getProtocol());
+        assertSame(proxy.getClass(), proxyFactory.getProxy(new MailService()).getClass());
+    }
+
+    @Test
+    public void testProxyCreationDoesNotRunTargetConstructor() {
+        ProxyFactory proxyFactory = new ProxyFactory(MethodMatcher.named("getPort"), MethodInvocation::proceed);
+        CountingMailService mailService = new CountingMailService();
+        mailService.setPort(995);
+
+        CountingMailService proxy = (CountingMailService) proxyFactory.getProxy(mailService);
+        proxyFactory.getProxy(new CountingMailService());
+
+        assertEquals(2, CountingMailService.INSTANCES.get());
+        assertEquals(995, proxy.getPort());
+    }
+
+    @Test
+    public void testInterceptEveryShapeOfLargeInterface() {
+        List<Method> targetCalls = new ArrayList<>();
+        ResultSet target = (ResultSet) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{ResultSet.class},
+                (jdkProxy, method, arguments) -> {
+                    targetCalls.add(method);
+                    return defaultValue(method.getReturnType());
+                });
+        AtomicInteger interceptedCalls = new AtomicInteger();
+        Object proxy = new ProxyFactory((method, targetClass) -> true, invocation -> {
+            interceptedCalls.incrementAndGet();
+            return invocation.proceed();
+        }).getProxy(target);
+
+        List<Method> methods = Arrays.stream(ResultSet.class.getMethods())
+                .filter(method -> !Modifier.isStatic(method.getModifiers()))
+                .toList();
+        assertTrue(methods.size() > Byte.MAX_VALUE);
+        for (Method method : methods) {
+            Object[] arguments = Arrays.stream(method.getParameterTypes()).map(ProxyFactoryTest::defaultValue).toArray();
+            assertDoesNotThrow(() -> method.invoke(proxy, arguments), method::toString);
+        }
+
+        assertEquals(methods.size(), interceptedCalls.get());
+        assertEquals(methods.size(), targetCalls.size());
+    }
+
+    @Test
+    public void testProxyEqualsItselfAndItsTarget() {
+        ProxyFactory proxyFactory = new ProxyFactory(MethodMatcher.named("sendEmail"), MethodInvocation::proceed);
+        MailService mailService = new MailService();
+        Object proxy = proxyFactory.getProxy(mailService);
+
+        assertEquals(proxy, proxy);
+        assertEquals(proxy, mailService);
+        assertEquals(proxy, proxyFactory.getProxy(mailService));
+        assertNotEquals(proxy, proxyFactory.getProxy(new MailService()));
+        assertTrue(List.of(proxy).contains(proxy));
+        assertEquals(mailService.hashCode(), proxy.hashCode());
+        assertEquals(mailService.toString(), proxy.toString());
+    }
+
+    @Test
+    public void testInterceptMethodsWithPrimitiveArgumentsAndResults() {
+        List<Object> arguments = new ArrayList<>();
+        ProxyFactory proxyFactory = new ProxyFactory((method, targetClass) -> true, invocation -> {
+            arguments.addAll(List.of(invocation.getArguments()));
+            return invocation.proceed();
+        });
+        LongBinaryOperator sum = Long::sum;
+        DoubleSupplier half = () -> 0.5;
+
+        assertEquals(5L, ((LongBinaryOperator) proxyFactory.getProxy(sum)).applyAsLong(2L, 3L));
+        assertEquals(0.5, ((DoubleSupplier) proxyFactory.getProxy(half)).getAsDouble());
+        assertEquals(List.of(2L, 3L), arguments);
+    }
+
+    @Test
+    public void testWrapUndeclaredCheckedExceptions() {
+        Supplier<String> target = () -> "value";
+        Supplier<?> proxy = (Supplier<?>) new ProxyFactory(MethodMatcher.named("get"), invocation -> {
+            throw new IOException("undeclared");
+        }).getProxy(target);
+
+        UndeclaredThrowableException exception = assertThrows(UndeclaredThrowableException.class, proxy::get);
+        assertInstanceOf(IOException.class, exception.getCause());
+    }
+
+    @Test
+    public void testReturnTargetWhenNothingMatches() {
+        ProxyFactory proxyFactory = new ProxyFactory(MethodMatcher.named("unknown"), MethodInvocation::proceed);
+        DefaultUserService userService = new DefaultUserService();
+
+        assertSame(userService, proxyFactory.getProxy(userService));
+    }
+
+    @Test
+    public void testRetryAndCachingInterceptors() {
+        AtomicInteger calls = new AtomicInteger();
+        Supplier<String> flakySupplier = () -> {
+            if (calls.incrementAndGet() == 1) {
+                throw new IllegalStateException("first call fails");
+            }
+            return "value";
+        };
+        ProxyFactory proxyFactory = new ProxyFactory(MethodMatcher.named("get"),
+                new CachingInterceptor(), new RetryInterceptor(2), new TimingInterceptor());
+
+        @SuppressWarnings("unchecked")
+        Supplier<String> proxy = (Supplier<String>) proxyFactory.getProxy(flakySupplier);
+
+        assertEquals("value", proxy.get());
+        assertEquals("value", proxy.get());
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    public void testCachingInterceptorEvictsLeastRecentlyUsedResults() {
+        AtomicInteger calls = new AtomicInteger();
+        Function<Integer, Integer> square = value -> {
+            calls.incrementAndGet();
+            return value * value;
+        };
+        CachingInterceptor cachingInterceptor = new CachingInterceptor(2);
+
+        @SuppressWarnings("unchecked")
+        Function<Integer, Integer> proxy = (Function<Integer, Integer>)
+                new ProxyFactory(MethodMatcher.named("apply"), cachingInterceptor).getProxy(square);
+
+        assertEquals(4, proxy.apply(2));
+        assertEquals(9, proxy.apply(3));
+        assertEquals(4, proxy.apply(2));
+        assertEquals(16, proxy.apply(4));
+        assertEquals(2, cachingInterceptor.size());
+        assertEquals(3, calls.get());
+        assertEquals(4, proxy.apply(2));
+        assertEquals(3, calls.get());
+        assertEquals(9, proxy.apply(3));
+        assertEquals(4, calls.get());
+        assertThrows(IllegalArgumentException.class, () -> new CachingInterceptor(0));
+    }
+
+    @Test
+    public void testRetryInterceptorRethrowsLastException() {
+        AtomicInteger calls = new AtomicInteger();
+        Runnable failing = () -> {
+            calls.incrementAndGet();
+            throw new IllegalStateException("always fails");
+        };
+        Runnable proxy = (Runnable) new ProxyFactory(MethodMatcher.named("run"), new RetryInterceptor(3)).getProxy(failing);
+
+        assertThrows(IllegalStateException.class, proxy::run);
+        assertEquals(3, calls.get());
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        return type.isPrimitive() && type != void.class ? Array.get(Array.newInstance(type, 1), 0) : null;
+    }
+
+    public static class CountingMailService extends MailService {
+        static final AtomicInteger INSTANCES = new AtomicInteger();
+
+        public CountingMailService() {
+            INSTANCES.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.study.ioc.reader.resource;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ResourceLoaderTest {
+
+    private final ResourceLoader resourceLoader = new ResourceLoader();
+
+    @Test
+    public void testGetClassPathResource() throws IOException {
+        try (InputStream inputStream = resourceLoader.getResource("classpath:context.xml").getInputStream()) {
+            assertTrue(new String(inputStream.readAllBytes(), StandardCharsets.UTF_8).contains("mailServicePOP"));
+        }
+    }
+
+    @Test
+    public void testGetMissingClassPathResource() {
+        assertThrows(FileNotFoundException.class, () -> resourceLoader.getResource("missing.xml").getInputStream());
+    }
+
+    @Test
+    public void testGetMappedFileSystemResource(@TempDir Path tempDir) throws IOException {
+        byte[] content = new byte[(int) FileSystemResource.MAPPING_THRESHOLD + 1];
+        Arrays.fill(content, (byte) 'a');
+        Path file = Files.write(tempDir.resolve("large.xml"), content);
+
+        Resource resource = resourceLoader.getResource("file:" + file);
+
+        assertInstanceOf(FileSystemResource.class, resource);
+        try (InputStream inputStream = resource.getInputStream()) {
+            assertInstanceOf(ByteBufferInputStream.class, inputStream);
+            assertArrayEquals(content, inputStream.readAllBytes());
+        }
+    }
+
+    @Test
+    public void testGetFileSystemResourceFromUri(@TempDir Path tempDir) throws IOException {
+        Path file = Files.writeString(tempDir.resolve("my context.xml"), "<beans/>");
+
+        assertEquals("<beans/>", read(resourceLoader.getResource(file.toUri().toString())));
+        assertEquals("<beans/>", read(resourceLoader.getResource("file:" + file)));
+    }
+
+    @Test
+    public void testGetJarEntryResource(@TempDir Path tempDir) throws IOException {
+        Path jar = tempDir.resolve("app.jar");
+        try (JarOutputStream outputStream = new JarOutputStream(Files.newOutputStream(jar))) {
+            outputStream.putNextEntry(new JarEntry("config/context.xml"));
+            outputStream.write("<beans/>".getBytes(StandardCharsets.UTF_8));
+            outputStream.closeEntry();
+        }
+
+        Resource resource = resourceLoader.getResource("jar:" + jar.toUri() + "!/config/context.xml");
+
+        try (InputStream inputStream = resource.getInputStream()) {
+            assertEquals("<beans/>", new String(inputStream.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    private String read(Resource resource) throws IOException {
+        try (InputStream inputStream = resource.getInputStream()) {
+            return new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
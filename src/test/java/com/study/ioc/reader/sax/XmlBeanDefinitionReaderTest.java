@@ -1,12 +1,28 @@
 package com.study.ioc.reader.sax;
 
 import com.study.ioc.entity.BeanDefinition;
+import com.study.ioc.entity.CollectionDependency;
+import com.study.ioc.exception.ParseContextException;
+import com.study.ioc.placeholder.PlaceholderResolver;
+import com.study.ioc.placeholder.PropertySource;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import java.io.ByteArrayInputStream;
+import java.io.FileNotFoundException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
 import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class XmlBeanDefinitionReaderTest {
@@ -69,4 +85,242 @@ public class XmlBeanDefinitionReaderTest {
         assertEquals("IMAP", valueDependencies3.get("protocol"));
 
     }
+
+    @Test
+    public void testGetBeanDefinitionMapResolvesPlaceholders() throws Exception {
+        String contextXml = "<beans>\n" +
+                "    <bean id=\"mailService\" class=\"com.study.entity.MailService\">\n" +
+                "        <property name=\"port\" value=\"${mail.port:25}\"/>\n" +
+                "        <property name=\"protocol\" value=\"${mail.protocol}-${mail.version}\"/>\n" +
+                "    </bean>\n" +
+                "    <bean id=\"plainMailService\" class=\"com.study.entity.MailService\">\n" +
+                "        <property name=\"port\" value=\"110\"/>\n" +
+                "    </bean>\n" +
+                "</beans>";
+        Properties properties = new Properties();
+        properties.setProperty("mail.protocol", "IMAP");
+        properties.setProperty("mail.version", "4");
+        XmlBeanDefinitionReader xmlBeanDefinitionReader = new XmlBeanDefinitionReader(
+                new PlaceholderResolver(List.of(PropertySource.fromProperties(properties))));
+
+        Map<String, BeanDefinition> beanDefinitionMap = xmlBeanDefinitionReader.getBeanDefinitionMap(new ByteArrayInputStream(contextXml.getBytes()));
+
+        Map<String, String> valueDependencies = beanDefinitionMap.get("mailService").getValueDependencies();
+        assertEquals("25", valueDependencies.get("port"));
+        assertEquals("IMAP-4", valueDependencies.get("protocol"));
+        assertEquals("110", beanDefinitionMap.get("plainMailService").getValueDependencies().get("port"));
+    }
+
+    @Test
+    public void testGetBeanDefinitionMapWithUnresolvablePlaceholder() {
+        String contextXml = "<beans>\n" +
+                "    <bean id=\"mailService\" class=\"com.study.entity.MailService\">\n" +
+                "        <property name=\"protocol\" value=\"${mail.protocol}\"/>\n" +
+                "    </bean>\n" +
+                "</beans>";
+        XmlBeanDefinitionReader xmlBeanDefinitionReader = new XmlBeanDefinitionReader(new PlaceholderResolver(List.of()));
+
+        assertThrows(ParseContextException.class,
+                () -> xmlBeanDefinitionReader.getBeanDefinitionMap(new ByteArrayInputStream(contextXml.getBytes())));
+    }
+
+    @Test
+    public void testGetBeanDefinitionMapFiltersByProfile() throws Exception {
+        String contextXml = "<beans>\n" +
+                "    <bean id=\"mailService\" class=\"com.study.entity.MailService\" profile=\"prod\"/>\n" +
+                "    <bean id=\"fallbackMailService\" class=\"com.study.entity.MailService\" profile=\"!prod\"/>\n" +
+                "    <beans profile=\"dev,test\">\n" +
+                "        <bean id=\"devMailService\" class=\"com.study.entity.MailService\">\n" +
+                "            <property name=\"port\" value=\"${mail.port}\"/>\n" +
+                "        </bean>\n" +
+                "    </beans>\n" +
+                "    <bean id=\"userService\" class=\"com.study.entity.DefaultUserService\"/>\n" +
+                "</beans>";
+        Properties properties = new Properties();
+        properties.setProperty("ioc.profiles.active", "qa");
+        XmlBeanDefinitionReader xmlBeanDefinitionReader = new XmlBeanDefinitionReader(
+                new PlaceholderResolver(List.of(PropertySource.fromProperties(properties))));
+
+        Map<String, BeanDefinition> beanDefinitionMap = xmlBeanDefinitionReader.getBeanDefinitionMap(new ByteArrayInputStream(contextXml.getBytes()));
+
+        assertEquals(Set.of("fallbackMailService", "userService"), beanDefinitionMap.keySet());
+    }
+
+    @Test
+    public void testGetBeanDefinitionMapFiltersByCondition() throws Exception {
+        String contextXml = "<beans>\n" +
+                "    <bean id=\"imapMailService\" class=\"com.study.entity.MailService\" condition=\"mail.protocol=IMAP\"/>\n" +
+                "    <bean id=\"popMailService\" class=\"com.study.entity.MailService\" condition=\"mail.protocol=POP3\"/>\n" +
+                "    <bean id=\"cachedMailService\" class=\"com.study.entity.MailService\" condition=\"mail.cache\"/>\n" +
+                "    <bean id=\"plainMailService\" class=\"com.study.entity.MailService\" condition=\"!mail.cache\"/>\n" +
+                "</beans>";
+        Properties properties = new Properties();
+        properties.setProperty("mail.protocol", "IMAP");
+        properties.setProperty("mail.cache", "false");
+        XmlBeanDefinitionReader xmlBeanDefinitionReader = new XmlBeanDefinitionReader(
+                new PlaceholderResolver(List.of(PropertySource.fromProperties(properties))));
+
+        Map<String, BeanDefinition> beanDefinitionMap = xmlBeanDefinitionReader.getBeanDefinitionMap(new ByteArrayInputStream(contextXml.getBytes()));
+
+        assertEquals(Set.of("imapMailService", "plainMailService"), beanDefinitionMap.keySet());
+    }
+
+    @Test
+    public void testChecksumDependsOnConditionKeysInBothQuoteStyles(@TempDir Path tempDir) throws Exception {
+        Path contextFile = Files.writeString(tempDir.resolve("context.xml"), "<beans>\n" +
+                "    <bean id=\"imapMailService\" class=\"com.study.entity.MailService\" condition=\"mail.protocol=IMAP\"/>\n" +
+                "    <bean id=\"cachedMailService\" class=\"com.study.entity.MailService\" condition = 'mail.cache'/>\n" +
+                "</beans>");
+        String location = "file:" + contextFile;
+
+        String checksum = createReader(Map.of("mail.protocol", "IMAP", "mail.cache", "true"), location).getChecksum();
+
+        assertEquals(checksum, createReader(Map.of("mail.protocol", "IMAP", "mail.cache", "true"), location).getChecksum());
+        assertNotEquals(checksum, createReader(Map.of("mail.protocol", "POP3", "mail.cache", "true"), location).getChecksum());
+        assertNotEquals(checksum, createReader(Map.of("mail.protocol", "IMAP", "mail.cache", "false"), location).getChecksum());
+    }
+
+    @Test
+    public void testChecksumIgnoresCommentsAndDependsOnPlaceholderValues(@TempDir Path tempDir) throws Exception {
+        String bean = "    <bean id=\"mailService\" class=\"com.study.entity.MailService\">\n" +
+                "        <property name=\"port\" value=\"${mail.port}\"/>\n" +
+                "    </bean>\n";
+        Path contextFile = Files.writeString(tempDir.resolve("context.xml"), "<beans>\n" + bean + "</beans>");
+        Path commentedContextFile = Files.writeString(tempDir.resolve("commented-context.xml"),
+                "<beans>\n    <!-- ${unterminated -->\n" + bean + "</beans>");
+
+        String checksum = createReader(Map.of("mail.port", "995"), "file:" + contextFile).getChecksum();
+
+        assertEquals(checksum, createReader(Map.of("mail.port", "995"), "file:" + commentedContextFile).getChecksum());
+        assertNotEquals(checksum, createReader(Map.of("mail.port", "110"), "file:" + contextFile).getChecksum());
+    }
+
+    @Test
+    public void testGetBeanDefinitionMapWithCollections() throws Exception {
+        String contextXml = "<beans>\n" +
+                "    <bean id=\"registry\" class=\"com.study.entity.MailServiceRegistry\">\n" +
+                "        <property name=\"mailServices\">\n" +
+                "            <list>\n" +
+                "                <ref bean=\"mailServicePOP\"/>\n" +
+                "                <ref bean=\"mailServiceIMAP\"/>\n" +
+                "            </list>\n" +
+                "        </property>\n" +
+                "        <property name=\"allMailServices\">\n" +
+                "            <list type=\"com.study.entity.IMailService\"/>\n" +
+                "        </property>\n" +
+                "        <property name=\"protocols\">\n" +
+                "            <set>\n" +
+                "                <value>POP3</value>\n" +
+                "                <value>${mail.protocol}</value>\n" +
+                "            </set>\n" +
+                "        </property>\n" +
+                "        <property name=\"mailServicesById\">\n" +
+                "            <map>\n" +
+                "                <entry key=\"pop\" ref=\"mailServicePOP\"/>\n" +
+                "                <entry key=\"default\" value=\"${mail.default:none}\"/>\n" +
+                "            </map>\n" +
+                "        </property>\n" +
+                "    </bean>\n" +
+                "</beans>";
+        Properties properties = new Properties();
+        properties.setProperty("mail.protocol", "IMAP");
+        XmlBeanDefinitionReader xmlBeanDefinitionReader = new XmlBeanDefinitionReader(
+                new PlaceholderResolver(List.of(PropertySource.fromProperties(properties))));
+
+        Map<String, CollectionDependency> collectionDependencies = xmlBeanDefinitionReader
+                .getBeanDefinitionMap(new ByteArrayInputStream(contextXml.getBytes()))
+                .get("registry").getCollectionDependencies();
+
+        CollectionDependency mailServices = collectionDependencies.get("mailServices");
+        assertEquals(CollectionDependency.Kind.LIST, mailServices.getKind());
+        assertEquals(List.of("mailServicePOP", "mailServiceIMAP"),
+                mailServices.getElements().stream().map(CollectionDependency.Element::getRef).toList());
+
+        CollectionDependency allMailServices = collectionDependencies.get("allMailServices");
+        assertEquals("com.study.entity.IMailService", allMailServices.getElementType());
+        assertTrue(allMailServices.getElements().isEmpty());
+
+        CollectionDependency protocols = collectionDependencies.get("protocols");
+        assertEquals(CollectionDependency.Kind.SET, protocols.getKind());
+        assertEquals(List.of("POP3", "IMAP"),
+                protocols.getElements().stream().map(CollectionDependency.Element::getValue).toList());
+
+        List<CollectionDependency.Element> entries = collectionDependencies.get("mailServicesById").getElements();
+        assertEquals("pop", entries.get(0).getKey());
+        assertEquals("mailServicePOP", entries.get(0).getRef());
+        assertEquals("none", entries.get(1).getValue());
+    }
+
+    @Test
+    public void testGetBeanDefinitionMapWithEmptyPlaceholderKey() {
+        String contextXml = "<beans>\n" +
+                "    <bean id=\"mailService\" class=\"com.study.entity.MailService\">\n" +
+                "        <property name=\"protocol\" value=\"${:POP3}\"/>\n" +
+                "        <property name=\"port\" value=\"${}\"/>\n" +
+                "    </bean>\n" +
+                "</beans>";
+        XmlBeanDefinitionReader xmlBeanDefinitionReader = new XmlBeanDefinitionReader(PlaceholderResolver.createDefault());
+
+        ParseContextException exception = assertThrows(ParseContextException.class,
+                () -> xmlBeanDefinitionReader.getBeanDefinitionMap(new ByteArrayInputStream(contextXml.getBytes())));
+        assertEquals("Empty placeholder key in value: ${:POP3}", exception.getMessage());
+    }
+
+    @Test
+    public void testGetBeanDefinitionSeesChangedProperties(@TempDir Path tempDir) throws Exception {
+        Path contextFile = Files.writeString(tempDir.resolve("context.xml"), "<beans>\n" +
+                "    <bean id=\"mailService\" class=\"com.study.entity.MailService\">\n" +
+                "        <property name=\"port\" value=\"${mail.port}\"/>\n" +
+                "        <property name=\"protocols\">\n" +
+                "            <list>\n" +
+                "                <value>${mail.protocol}</value>\n" +
+                "            </list>\n" +
+                "        </property>\n" +
+                "    </bean>\n" +
+                "</beans>");
+        Properties properties = new Properties();
+        properties.setProperty("mail.port", "995");
+        properties.setProperty("mail.protocol", "POP3");
+        XmlBeanDefinitionReader xmlBeanDefinitionReader = new XmlBeanDefinitionReader(
+                new PlaceholderResolver(List.of(PropertySource.fromProperties(properties))), "file:" + contextFile);
+        String checksum = xmlBeanDefinitionReader.getChecksum();
+
+        properties.setProperty("mail.port", "110");
+        properties.setProperty("mail.protocol", "IMAP");
+        BeanDefinition beanDefinition = xmlBeanDefinitionReader.getBeanDefinition().get("mailService");
+
+        assertEquals("110", beanDefinition.getValueDependencies().get("port"));
+        assertEquals("IMAP", beanDefinition.getCollectionDependencies().get("protocols").getElements().get(0).getValue());
+        assertNotEquals(checksum, xmlBeanDefinitionReader.getChecksum());
+    }
+
+    @Test
+    public void testGetBeanDefinitionFromJar(@TempDir Path tempDir) throws Exception {
+        Path jar = tempDir.resolve("app.jar");
+        try (JarOutputStream outputStream = new JarOutputStream(Files.newOutputStream(jar))) {
+            outputStream.putNextEntry(new JarEntry("context.xml"));
+            outputStream.write(CONTEXT_XML.getBytes());
+            outputStream.closeEntry();
+        }
+        XmlBeanDefinitionReader xmlBeanDefinitionReader = new XmlBeanDefinitionReader("jar:" + jar.toUri() + "!/context.xml");
+
+        Map<String, BeanDefinition> beanDefinitionMap = xmlBeanDefinitionReader.getBeanDefinition();
+
+        assertEquals(3, beanDefinitionMap.size());
+        assertEquals("com.study.entity.DefaultUserService", beanDefinitionMap.get("userService").getClassName());
+    }
+
+    private XmlBeanDefinitionReader createReader(Map<String, String> values, String location) {
+        Properties properties = new Properties();
+        properties.putAll(values);
+        return new XmlBeanDefinitionReader(new PlaceholderResolver(List.of(PropertySource.fromProperties(properties))), location);
+    }
+
+    @Test
+    public void testGetBeanDefinitionKeepsCause() {
+        XmlBeanDefinitionReader xmlBeanDefinitionReader = new XmlBeanDefinitionReader("missing.xml");
+
+        ParseContextException exception = assertThrows(ParseContextException.class, xmlBeanDefinitionReader::getBeanDefinition);
+        assertInstanceOf(FileNotFoundException.class, exception.getCause());
+    }
 }
@@ -0,0 +1,12 @@
+package com.study.processor;
+
+import com.study.ioc.intercept.InterceptingBeanPostProcessor;
+import com.study.ioc.intercept.MethodInvocation;
+import com.study.ioc.intercept.MethodMatcher;
+
+public class TestInterceptingPostProcessor extends InterceptingBeanPostProcessor {
+
+    public TestInterceptingPostProcessor() {
+        super(MethodMatcher.named("sendEmail"), MethodInvocation::proceed);
+    }
+}